@@ -0,0 +1,109 @@
+package com.jpabook.jpashop.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 대량 데이터
+ * JPA 를 거치지 않고 JDBC batch insert 로 바로 넣는다.
+ * InitDb 가 시퀀스로 만든 id 와 겹치지 않도록 ID_BASE 부터 id 를 직접 부여한다.
+ */
+public final class BenchmarkDataSeeder {
+
+    public static final long ID_BASE = 1_000_000L;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int ORDERS_PER_MEMBER = 100;
+
+    private BenchmarkDataSeeder() {
+    }
+
+    /**
+     * 주문 + 회원 + 배송 (주문상품 없음)
+     */
+    public static void seedOrders(JdbcTemplate jdbcTemplate, int orderCount) {
+        seed(jdbcTemplate, orderCount, 0, Math.max(1, orderCount / ORDERS_PER_MEMBER), 0);
+    }
+
+    /**
+     * 주문 수 x 주문당 주문상품 수 x 회원 수 x 상품 수
+     * 주문상품은 상품을 순서대로 돌아가며 사용한다.
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, int orderCount, int itemsPerOrder, int memberCount, int itemCount) {
+        Batch members = new Batch(jdbcTemplate,
+                "insert into member (member_id, name, city, street, zipcode) values (?, ?, ?, ?, ?)");
+        for (int i = 0; i < memberCount; i++) {
+            members.add(ID_BASE + i, "member" + i, "서울", "street" + i, "zip" + i);
+        }
+        members.flush();
+
+        Batch items = new Batch(jdbcTemplate,
+                "insert into item (dtype, item_id, name, price, stock_quantity) values ('B', ?, ?, ?, ?)");
+        for (int i = 0; i < itemCount; i++) {
+            items.add(ID_BASE + i, "book" + i, 10000 + (i % 10) * 1000, 1_000_000);
+        }
+        items.flush();
+
+        Timestamp base = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        Batch deliveries = new Batch(jdbcTemplate,
+                "insert into delivery (delivery_id, status, city, street, zipcode) values (?, ?, ?, ?, ?)");
+        Batch orders = new Batch(jdbcTemplate,
+                "insert into orders (order_id, member_id, delivery_id, order_date, status, total_price, line_count) values (?, ?, ?, ?, ?, ?, ?)",
+                deliveries);
+        Batch orderItems = new Batch(jdbcTemplate,
+                "insert into order_item (order_item_id, order_id, item_id, order_price, count) values (?, ?, ?, ?, ?)",
+                orders);
+        long orderItemId = ID_BASE;
+        int totalPrice = 0; // 주문상품 j 는 10000원 x (1 + j)개
+        for (int j = 0; j < itemsPerOrder; j++) {
+            totalPrice += 10000 * (1 + j);
+        }
+        for (int i = 0; i < orderCount; i++) {
+            long id = ID_BASE + i;
+            deliveries.add(id, "READY", "서울", "street" + i, "zip" + i);
+            orders.add(id, ID_BASE + (i % memberCount), id, new Timestamp(base.getTime() + i), "ORDER", totalPrice, itemsPerOrder);
+            for (int j = 0; j < itemsPerOrder; j++) {
+                orderItems.add(orderItemId++, id, ID_BASE + ((long) i * itemsPerOrder + j) % itemCount, 10000, 1 + j);
+            }
+        }
+        orderItems.flush();
+        orders.flush();
+    }
+
+    /**
+     * BATCH_SIZE 만큼 모이면 batchUpdate
+     * FK 제약 때문에 참조하는 테이블(parents)을 먼저 flush 한다.
+     */
+    private static class Batch {
+        private final JdbcTemplate jdbcTemplate;
+        private final String sql;
+        private final Batch[] parents;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        Batch(JdbcTemplate jdbcTemplate, String sql, Batch... parents) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.sql = sql;
+            this.parents = parents;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            for (Batch parent : parents) {
+                parent.flush();
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.service.ItemService;
+import com.jpabook.jpashop.service.MemberService;
+import com.jpabook.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 상품에 동시 주문이 몰리는 경우의 처리량 (초당 주문 수, 32 쓰레드)
+ * - order: 상품 엔티티를 읽고 자바에서 재고를 뺀 뒤 flush 때 update (동시 주문끼리 재고 갱신이 유실될 수 있다)
+ * - orderWithStockReservation: 조건부 update 한 번으로 재고 확인 + 차감
+ * 재고가 바닥나지 않도록 재고를 Integer.MAX_VALUE 로 둔다.
+ * ./gradlew jmh -PjmhIncludes=HotItemOrderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class HotItemOrderBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long memberId;
+    private Long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("hotItem");
+        orderService = context.getBean(OrderService.class);
+
+        Member member = new Member();
+        member.setName("bench-member");
+        member.setAddress(new Address("서울", "street", "zip"));
+        memberId = context.getBean(MemberService.class).join(member);
+
+        Book book = new Book();
+        book.setName("bench-hot-book");
+        book.setPrice(10000);
+        book.setStockQuantity(Integer.MAX_VALUE);
+        context.getBean(ItemService.class).saveItem(book);
+        itemId = book.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long entityReadModifyWrite() {
+        return orderService.order(memberId, itemId, 1);
+    }
+
+    @Benchmark
+    public Long conditionalUpdate() {
+        return orderService.orderWithStockReservation(memberId, itemId, 1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.repository.MemberRepository;
+import com.jpabook.jpashop.service.MemberService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 가입 처리량 (초당 가입 시도 수, 8 쓰레드)
+ * - insertAndCatch: MemberService.join (바로 insert, uk_member_name 위반이면 중복 회원)
+ * - selectThenInsert: 이전 방식 (이름으로 조회해서 없으면 insert)
+ * duplicatePercent 만큼은 이미 있는 이름으로 가입한다. 중복은 두 방식 모두 IllegalStateException 으로 끝난다.
+ * ./gradlew jmh -PjmhIncludes=MemberJoinBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class MemberJoinBenchmark {
+
+    private static final String TAKEN_NAME = "bench-taken";
+
+    @Param({"0", "25"})
+    public int duplicatePercent;
+
+    private ConfigurableApplicationContext context;
+    private MemberService memberService;
+    private MemberRepository memberRepository;
+    private TransactionTemplate tx;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("memberJoin");
+        memberService = context.getBean(MemberService.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberService.join(newMember(TAKEN_NAME));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean insertAndCatch() {
+        Member member = newMember(nextName());
+        try {
+            memberService.join(member);
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean selectThenInsert() {
+        Member member = newMember(nextName());
+        try {
+            tx.executeWithoutResult(status -> {
+                if (!memberRepository.findByName(member.getName()).isEmpty()) {
+                    throw new IllegalStateException("이미 존재하는 회원입니다.");
+                }
+                memberRepository.save(member);
+            });
+            return true;
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            return false; // 조회와 insert 사이에 같은 이름이 먼저 커밋되면 제약 위반
+        }
+    }
+
+    private String nextName() {
+        long n = sequence.incrementAndGet();
+        return n % 100 < duplicatePercent ? TAKEN_NAME : "bench-member" + n;
+    }
+
+    private static Member newMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        return member;
+    }
+}
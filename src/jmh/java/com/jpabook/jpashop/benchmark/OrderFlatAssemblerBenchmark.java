@@ -0,0 +1,66 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import com.jpabook.jpashop.repository.order.query.OrderFlatDto;
+import com.jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import com.jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * V6 플랫 row -> OrderQueryDto 변환
+ * groupingBy(기존 V6) vs OrderFlatAssembler
+ * ./gradlew jmh -PjmhIncludes=OrderFlatAssemblerBenchmark (-prof gc 로 할당량도 비교)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderFlatAssemblerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    @Param({"2"})
+    int itemsPerOrder;
+
+    private List<OrderFlatDto> flats;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Address address = new Address("서울", "street", "12345");
+        LocalDateTime orderDate = LocalDateTime.now();
+        flats = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long orderId = i / itemsPerOrder;
+            flats.add(new OrderFlatDto(orderId, "member" + orderId, orderDate, OrderStatus.ORDER, address,
+                    "item" + i, 10000, 1));
+        }
+    }
+
+    @Benchmark
+    public List<OrderQueryDto> groupingBy_collector() {
+        return flats.stream()
+                .collect(groupingBy(o -> new OrderQueryDto(o.getOrderId(),
+                                o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
+                        mapping(o -> new OrderItemQueryDto(o.getOrderId(),
+                                o.getItemName(), o.getOrderPrice(), o.getCount()), toList())
+                )).entrySet().stream()
+                .map(e -> new OrderQueryDto(e.getKey().getOrderId(),
+                        e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(),
+                        e.getKey().getAddress(), e.getValue()))
+                .collect(toList());
+    }
+
+    @Benchmark
+    public List<OrderQueryDto> flatAssembler() {
+        return OrderFlatAssembler.assemble(flats);
+    }
+}
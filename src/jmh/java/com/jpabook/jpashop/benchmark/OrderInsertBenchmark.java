@@ -0,0 +1,91 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.service.BatchOrder;
+import com.jpabook.jpashop.service.ItemService;
+import com.jpabook.jpashop.service.MemberService;
+import com.jpabook.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 저장 처리량 (초당 주문 수)
+ * 시퀀스 allocationSize/pooled-lo 적용 전후 비교는 이전 커밋에서 같은 벤치마크를 돌려서 비교한다.
+ * ./gradlew jmh -PjmhIncludes=OrderInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderInsertBenchmark {
+
+    private static final int ORDERS_PER_INVOCATION = 100;
+    private static final int MEMBERS = 100;
+    private static final int ITEMS = 100;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private final List<Long> memberIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private List<BatchOrder> batchOrders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("insert");
+        orderService = context.getBean(OrderService.class);
+        MemberService memberService = context.getBean(MemberService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setName("bench-member" + i);
+            member.setAddress(new Address("서울", "street" + i, "zip" + i));
+            memberIds.add(memberService.join(member));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            Book book = new Book();
+            book.setName("bench-book" + i);
+            book.setPrice(10000);
+            book.setStockQuantity(Integer.MAX_VALUE);
+            itemService.saveItem(book);
+            itemIds.add(book.getId());
+        }
+
+        batchOrders = new ArrayList<>(ORDERS_PER_INVOCATION);
+        for (int i = 0; i < ORDERS_PER_INVOCATION; i++) {
+            batchOrders.add(new BatchOrder(memberIds.get(i % MEMBERS), List.of(
+                    new BatchOrder.Line(itemIds.get(i % ITEMS), 1),
+                    new BatchOrder.Line(itemIds.get((i + 1) % ITEMS), 1))));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 주문 하나당 트랜잭션 하나 (OrderService.order)
+     */
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public void singleOrders() {
+        for (int i = 0; i < ORDERS_PER_INVOCATION; i++) {
+            orderService.order(memberIds.get(i % MEMBERS), itemIds.get(i % ITEMS), 1);
+        }
+    }
+
+    /**
+     * 주문 100건(주문상품 200건)을 한 트랜잭션으로 (OrderService.orderBatch)
+     */
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public void batchOrders() {
+        orderService.orderBatch(batchOrders);
+    }
+}
@@ -0,0 +1,65 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderSearch;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.service.OrderPageCount;
+import com.jpabook.jpashop.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컬렉션 페치 조인 페이징 (주문 id 페이지 -> 그 주문만 주문상품, 상품까지 페치 조인)
+ * 요청당 할당량(gc.alloc.rate.norm)이 전체 주문 수와 상관없이 페이지 크기에 비례해야 한다.
+ * orderCount 10000 과 500000 의 할당량이 비슷하면 메모리가 페이지 단위로 제한되는 것이다.
+ * count 는 EXACT(매번 count 쿼리), SKIP(count 생략)을 비교한다.
+ * ./gradlew jmh -PjmhIncludes=OrderItemPagingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderItemPagingBenchmark {
+
+    @Param({"10000", "500000"})
+    int orderCount;
+
+    @Param({"0", "100"})
+    int page;
+
+    @Param({"100"})
+    int size;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderSearch orderSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("item-paging");
+        BenchmarkDataSeeder.seed(context.getBean(JdbcTemplate.class), orderCount, 3, Math.max(1, orderCount / 100), 500);
+
+        orderService = context.getBean(OrderService.class);
+        orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Order> twoPhaseExactCount() {
+        return orderService.findOrdersWithItems(orderSearch, PageRequest.of(page, size), OrderPageCount.EXACT);
+    }
+
+    @Benchmark
+    public Page<Order> twoPhaseSkipCount() {
+        return orderService.findOrdersWithItems(orderSearch, PageRequest.of(page, size), OrderPageCount.SKIP);
+    }
+}
@@ -0,0 +1,75 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.hibernate5.jakarta.Hibernate5JakartaModule;
+import com.jpabook.jpashop.api.OrderQueryJsonSerializers;
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import com.jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderQueryDto 목록 JSON 직렬화
+ * 기본 BeanSerializer(+Hibernate5JakartaModule) vs OrderQueryJsonSerializers
+ * 주문 1건당 할당량은 gc.alloc.rate.norm / orders 로 비교한다.
+ * ./gradlew jmh -PjmhIncludes=OrderJsonSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderJsonSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    int orders;
+
+    @Param({"2"})
+    int itemsPerOrder;
+
+    private List<OrderQueryDto> dtos;
+    private ObjectWriter reflectionWriter;
+    private ObjectWriter dedicatedWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Address address = new Address("서울", "street", "12345");
+        LocalDateTime orderDate = LocalDateTime.now();
+        dtos = new ArrayList<>(orders);
+        for (long orderId = 0; orderId < orders; orderId++) {
+            List<OrderItemQueryDto> items = new ArrayList<>(itemsPerOrder);
+            for (int i = 0; i < itemsPerOrder; i++) {
+                items.add(new OrderItemQueryDto(orderId, "item" + i, 10000, 1));
+            }
+            dtos.add(new OrderQueryDto(orderId, "member" + orderId, orderDate, OrderStatus.ORDER, address, items));
+        }
+
+        // 스프링 부트가 만드는 ObjectMapper 와 같은 설정
+        ObjectMapper reflection = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new Hibernate5JakartaModule())
+                .build();
+        ObjectMapper dedicated = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new Hibernate5JakartaModule(), OrderQueryJsonSerializers.module())
+                .build();
+        reflectionWriter = reflection.writer();
+        dedicatedWriter = dedicated.writer();
+    }
+
+    @Benchmark
+    public void reflection() throws IOException {
+        reflectionWriter.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    @Benchmark
+    public void dedicatedSerializer() throws IOException {
+        dedicatedWriter.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+}
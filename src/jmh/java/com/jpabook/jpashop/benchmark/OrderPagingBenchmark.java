@@ -0,0 +1,67 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 페이지 깊이에 따른 offset 페이징 vs 키셋 페이징 지연시간
+ * offset 은 pageStart 에 비례해서 느려지고, keyset 은 깊이와 상관없이 일정해야 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderPagingBenchmark {
+
+    @Param({"300000"})
+    int orderCount;
+
+    @Param({"0", "1000", "10000", "100000", "299000"})
+    int pageStart;
+
+    @Param({"100"})
+    int limit;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate readOnlyTx;
+    private Long lastOrderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("paging");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkDataSeeder.seedOrders(jdbcTemplate, orderCount);
+
+        orderRepository = context.getBean(OrderRepository.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+
+        // pageStart 번째 row 직전의 주문 id = 키셋 방식에서 클라이언트가 들고 있을 cursor
+        lastOrderId = pageStart == 0 ? null : jdbcTemplate.queryForObject(
+                "select order_id from orders order by order_id offset ? rows fetch next 1 rows only",
+                Long.class, pageStart - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Order> offset() {
+        return readOnlyTx.execute(status -> orderRepository.findAllWithMemberDelivery(pageStart, limit));
+    }
+
+    @Benchmark
+    public List<Order> keyset() {
+        return readOnlyTx.execute(status -> orderRepository.findAllWithMemberDeliveryAfter(lastOrderId, limit));
+    }
+}
@@ -0,0 +1,152 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jpabook.jpashop.api.OrderApiController;
+import com.jpabook.jpashop.api.OrderSimpleApiController;
+import com.jpabook.jpashop.service.OrderSummaryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 주문 조회 전략별 end-to-end 비교 (조회 + DTO 변환 + JSON 직렬화)
+ * 컨트롤러 메서드를 그대로 호출하고 결과를 스프링 ObjectMapper로 직렬화한다.
+ * OSIV를 끄고 있으므로 지연 로딩이 되도록 읽기 전용 트랜잭션 안에서 실행한다.
+ *
+ * Throughput(초당 요청 수), SampleTime(p50/p90/p99 지연시간), gc 프로파일러(요청당 할당량)를 함께 본다.
+ * 데이터 크기는 -p 로 변경: ./gradlew jmh -PjmhIncludes=OrderReadStrategyBenchmark (jmh.benchmarkParameters)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderReadStrategyBenchmark {
+
+    @Param({"1000"})
+    int orders;
+
+    @Param({"3"})
+    int itemsPerOrder;
+
+    @Param({"100"})
+    int members;
+
+    @Param({"500"})
+    int items;
+
+    private ConfigurableApplicationContext context;
+    private OrderApiController orderApiController;
+    private OrderSimpleApiController orderSimpleApiController;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("read-strategy");
+        BenchmarkDataSeeder.seed(context.getBean(JdbcTemplate.class), orders, itemsPerOrder, members, items);
+        context.getBean(OrderSummaryService.class).rebuild(); // JDBC 로 넣은 주문을 order_summary 에 반영
+
+        orderApiController = context.getBean(OrderApiController.class);
+        orderSimpleApiController = context.getBean(OrderSimpleApiController.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private byte[] serialize(Supplier<Object> endpoint) {
+        return readOnlyTx.execute(status -> {
+            try {
+                return objectMapper.writeValueAsBytes(endpoint.get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    // == 주문 + 주문상품 (OrderApiController) == //
+
+    /** findAllByString, 엔티티 직접 노출 */
+    @Benchmark
+    public byte[] orders_v1_entity() {
+        return serialize(orderApiController::ordersV1);
+    }
+
+    /** findAllByString, 엔티티 -> DTO (지연 로딩 + batch fetch) */
+    @Benchmark
+    public byte[] orders_v2_entityToDto() {
+        return serialize(orderApiController::ordersV2);
+    }
+
+    /** findAllWithItem, 컬렉션 페치 조인 */
+    @Benchmark
+    public byte[] orders_v3_fetchJoin() {
+        return serialize(orderApiController::ordersV3);
+    }
+
+    /** findAllWithMemberDelivery(offset, limit), ToOne 페치 조인 + @BatchSize */
+    @Benchmark
+    public byte[] orders_v3_1_batchSize() {
+        return serialize(() -> orderApiController.ordersV3_page(0, orders));
+    }
+
+    /** findOrderQueryDtos, DTO 직접 조회 1+N */
+    @Benchmark
+    public byte[] orders_v4_dtoPerOrder() {
+        return serialize(orderApiController::ordersV4);
+    }
+
+    /** OrderParallelQueryRepository, 주문 id 구간별 주문/주문상품 병렬 조회 */
+    @Benchmark
+    public byte[] orders_v4_1_parallel() {
+        return serialize(orderApiController::ordersV4_parallel);
+    }
+
+    /** findAllDto_optimization, DTO 직접 조회 + IN 쿼리 */
+    @Benchmark
+    public byte[] orders_v5_dtoInQuery() {
+        return serialize(orderApiController::ordersV5);
+    }
+
+    /** findAllDto_flat, 플랫 조인 한 번 */
+    @Benchmark
+    public byte[] orders_v6_dtoFlat() {
+        return serialize(orderApiController::ordersV6);
+    }
+
+    // == 주문 + 회원 + 배송 (OrderSimpleApiController) == //
+
+    @Benchmark
+    public byte[] simpleOrders_v1_entity() {
+        return serialize(orderSimpleApiController::ordersV1);
+    }
+
+    @Benchmark
+    public byte[] simpleOrders_v2_entityToDto() {
+        return serialize(orderSimpleApiController::ordersV2);
+    }
+
+    @Benchmark
+    public byte[] simpleOrders_v3_fetchJoin() {
+        return serialize(orderSimpleApiController::ordersV3);
+    }
+
+    @Benchmark
+    public byte[] simpleOrders_v4_dto() {
+        return serialize(orderSimpleApiController::ordersV4);
+    }
+
+    /** order_summary 한 테이블 (최대 1000건) */
+    @Benchmark
+    public byte[] simpleOrders_v6_summary() {
+        return serialize(() -> orderSimpleApiController.ordersV6(0, Math.min(orders, 1000)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderItem;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.repository.order.report.DailyRevenueDto;
+import com.jpabook.jpashop.repository.order.report.OrderReportRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 일별 매출 집계
+ * 엔티티로 주문/주문상품을 읽어서 자바에서 합산 vs orders.total_price SQL sum/group by
+ * ./gradlew jmh -PjmhIncludes=OrderRevenueReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderRevenueReportBenchmark {
+
+    @Param({"10000"})
+    int orders;
+
+    @Param({"3"})
+    int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private OrderReportRepository orderReportRepository;
+    private EntityManager em;
+    private TransactionTemplate readOnlyTx;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("revenue-report");
+        BenchmarkDataSeeder.seed(context.getBean(JdbcTemplate.class), orders, itemsPerOrder, 100, 500);
+        orderReportRepository = context.getBean(OrderReportRepository.class);
+        em = context.getBean(EntityManager.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+        from = LocalDate.now().minusDays(30).atStartOfDay();
+        to = LocalDate.now().plusDays(1).atStartOfDay();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 기존 방식: 주문 엔티티를 읽고 주문상품 컬렉션(@BatchSize)을 로딩해서 합산
+     */
+    @Benchmark
+    public Map<LocalDate, Long> entitySum() {
+        return readOnlyTx.execute(status -> {
+            List<Order> all = em.createQuery("select o from Order o" +
+                            " where o.status = :status and o.orderDate >= :from and o.orderDate < :to", Order.class)
+                    .setParameter("status", OrderStatus.ORDER)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getResultList();
+            Map<LocalDate, Long> revenue = new TreeMap<>();
+            for (Order order : all) {
+                long total = order.getOrderItems().stream().mapToLong(OrderItem::getTotalPrice).sum();
+                revenue.merge(order.getOrderDate().toLocalDate(), total, Long::sum);
+            }
+            return revenue;
+        });
+    }
+
+    @Benchmark
+    public List<DailyRevenueDto> sqlGroupBy() {
+        return readOnlyTx.execute(status -> orderReportRepository.findDailyRevenue(from, to));
+    }
+}
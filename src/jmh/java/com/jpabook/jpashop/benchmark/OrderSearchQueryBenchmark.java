@@ -0,0 +1,67 @@
+package com.jpabook.jpashop.benchmark;
+
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderSearch;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * OrderSearch 동적 쿼리의 요청당 쿼리 생성 + 변환 비용
+ * findAllByString(JPQL 문자열 조립) / findAllByCriteria(Criteria 트리) / findAllBySearch(조합별 JPQL 캐시)
+ * 결과가 없는 회원이름으로 검색해서 DB 실행 시간보다 쿼리 생성/변환 비용이 드러나게 한다.
+ * ./gradlew jmh -PjmhIncludes=OrderSearchQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderSearchQueryBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate readOnlyTx;
+    private OrderSearch orderSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("order-search");
+        orderRepository = context.getBean(OrderRepository.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+
+        orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+        orderSearch.setMemberName("no-such-member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private List<Order> inTx(Supplier<List<Order>> search) {
+        return readOnlyTx.execute(status -> search.get());
+    }
+
+    @Benchmark
+    public List<Order> jpqlString() {
+        return inTx(() -> orderRepository.findAllByString(orderSearch));
+    }
+
+    @Benchmark
+    public List<Order> criteria() {
+        return inTx(() -> orderRepository.findAllByCriteria(orderSearch));
+    }
+
+    @Benchmark
+    public List<Order> cachedShape() {
+        return inTx(() -> orderRepository.findAllBySearch(orderSearch));
+    }
+}
@@ -0,0 +1,129 @@
+package com.jpabook.jpashop.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 동시 접속 클라이언트 수별 API 처리량/지연 측정
+ *
+ * 클라이언트마다 응답을 받으면 바로 다음 요청을 보내는 closed-loop 방식이다.
+ * 요청은 HttpClient 비동기 API 로 보내므로 클라이언트 수만큼 쓰레드를 만들지 않는다.
+ *
+ * 플랫폼 쓰레드 / 가상 쓰레드 비교
+ *   ./gradlew bootRun                    (플랫폼 쓰레드)
+ *   ./gradlew bootRun -PvirtualThreads   (가상 쓰레드)
+ *   ./gradlew loadTest -Purl=http://localhost:8080/api/v5/orders -Pclients=1000,10000 -Pduration=30
+ * 10k 클라이언트는 OS 파일 디스크립터 한도(ulimit -n)를 늘려야 한다.
+ */
+public class ApiLoadTest {
+
+    private static final int MAX_LATENCY_MILLIS = 60_000;
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/api/v5/orders";
+        String clients = args.length > 1 ? args[1] : "1000,10000";
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(MAX_LATENCY_MILLIS / 1000))
+                .GET()
+                .build();
+
+        System.out.printf("url=%s%n", url);
+        System.out.printf("%8s %12s %10s %10s %10s %10s%n", "clients", "req/s", "p50(ms)", "p99(ms)", "max(ms)", "errors");
+        for (String c : clients.split(",")) {
+            int concurrency = Integer.parseInt(c.trim());
+            run(client, request, concurrency, warmupSeconds);
+            Result result = run(client, request, concurrency, durationSeconds);
+            System.out.printf("%8d %12.1f %10d %10d %10d %10d%n", concurrency,
+                    result.completed / (double) durationSeconds,
+                    result.percentile(0.50), result.percentile(0.99), result.max(), result.errors.get());
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds) {
+        Result result = new Result();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        CompletableFuture<?>[] loops = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            send(client, request, deadline, result, done);
+            loops[i] = done;
+        }
+        CompletableFuture.allOf(loops).join();
+        result.completed = result.count();
+        return result;
+    }
+
+    /**
+     * 응답을 받으면 deadline 전까지 다음 요청을 보낸다. (thenCompose 체인이 쌓이지 않도록 콜백에서 다시 호출)
+     */
+    private static void send(HttpClient client, HttpRequest request, long deadline, Result result, CompletableFuture<Void> done) {
+        if (System.nanoTime() >= deadline) {
+            done.complete(null);
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    if (e != null || response.statusCode() >= 400) {
+                        result.errors.incrementAndGet();
+                    } else {
+                        result.record((System.nanoTime() - start) / 1_000_000);
+                    }
+                    send(client, request, deadline, result, done);
+                });
+    }
+
+    /**
+     * 1ms 단위 지연 히스토그램
+     */
+    private static class Result {
+        private final AtomicLongArray histogram = new AtomicLongArray(MAX_LATENCY_MILLIS + 1);
+        private final AtomicLong errors = new AtomicLong();
+        private long completed;
+
+        void record(long millis) {
+            histogram.incrementAndGet((int) Math.min(millis, MAX_LATENCY_MILLIS));
+        }
+
+        long count() {
+            long count = 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                count += histogram.get(i);
+            }
+            return count;
+        }
+
+        long percentile(double p) {
+            long target = (long) Math.ceil(completed * p);
+            long seen = 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                seen += histogram.get(i);
+                if (seen >= target && seen > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        long max() {
+            for (int i = histogram.length() - 1; i >= 0; i--) {
+                if (histogram.get(i) > 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.jpabook.jpashop;
 
 import com.jpabook.jpashop.domain.*;
 import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.service.OrderSummaryService;
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,16 +18,21 @@ import org.springframework.transaction.annotation.Transactional;
  * userB
  * * SPRING1 BOOK
  * * SPRING2 BOOK
+ *
+ * jpashop.datagen.on-startup=true 면 DataGenerator 가 대량 데이터를 만들므로 생성하지 않는다.
  */
 @Component
+@ConditionalOnProperty(name = "jpashop.datagen.on-startup", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 public class InitDb {
     private final InitService initService;
+    private final OrderSummaryService orderSummaryService;
 
     @PostConstruct
     public void init(){
         initService.dbInit1();
         initService.dbInit2();
+        orderSummaryService.rebuild();
     }
     @Component
     @Transactional
@@ -51,8 +58,11 @@ public class InitDb {
         }
 
         public void dbInit2(){
-            Member member = createMember("userB","진주", "2", "2222" );
-            em.persist(member);
+            // 회원 이름은 유니크(uk_member_name)이므로 같은 이름의 회원을 또 만들지 않고 dbInit1 의 userB 로 주문한다.
+            Member member = em.createQuery("select m from Member m where m.name = :name", Member.class)
+                    .setParameter("name", "userB")
+                    .getSingleResult();
+            Address address = new Address("진주", "2", "2222");
 
             Book book1 = createBook("SPRING1 BOOK",  20000, 200);
             em.persist(book1);
@@ -63,7 +73,7 @@ public class InitDb {
             OrderItem orderItem1 = OrderItem.createOrderItem(book1, 20000, 3);
             OrderItem orderItem2 = OrderItem.createOrderItem(book2, 40000, 4);
 
-            Delivery delivery = createDelivery(member.getAddress());
+            Delivery delivery = createDelivery(address);
             Order order = Order.createOrder(member, delivery, orderItem1, orderItem2);
             em.persist(order);
         }
@@ -0,0 +1,145 @@
+package com.jpabook.jpashop.api;
+
+import com.jpabook.jpashop.domain.OrderCancelJob;
+import com.jpabook.jpashop.domain.OrderCancelJobStatus;
+import com.jpabook.jpashop.service.DataGenerationSpec;
+import com.jpabook.jpashop.service.DataGenerator;
+import com.jpabook.jpashop.service.OrderCancelJobService;
+import com.jpabook.jpashop.service.OrderSummaryService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 운영 관리 API (대량 데이터 생성, order_summary 재생성, 대량 주문 취소)
+ * 인증 없이 데이터를 만들거나 바꾸므로 jpashop.admin.enabled=true 일 때만 등록한다.
+ */
+@RestController
+@ConditionalOnProperty(name = "jpashop.admin.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AdminApiController {
+
+    private final DataGenerator dataGenerator;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderCancelJobService orderCancelJobService;
+
+    /**
+     * 부하 테스트용 대량 데이터 생성
+     * 요청 본문을 생략한 항목은 DataGenerationSpec 기본값(application.yml 의 jpashop.datagen 과 같음)을 사용한다.
+     * 생성 조건이 잘못되면 아무것도 저장하지 않고 400으로 응답한다.
+     */
+    @PostMapping("/api/admin/data-generator")
+    public DataGenerator.Result generateData(@RequestBody DataGenerationSpec spec){
+        return dataGenerator.generate(spec);
+    }
+
+    /**
+     * order_summary 전체 재생성
+     */
+    @PostMapping("/api/admin/order-summary/rebuild")
+    public RebuildResponse rebuildOrderSummary(){
+        return new RebuildResponse(orderSummaryService.rebuild());
+    }
+
+    /**
+     * order_summary 와 원본(주문, 회원, 배송, 주문상품) 일치 여부 확인
+     */
+    @GetMapping("/api/admin/order-summary/check")
+    public OrderSummaryService.ConsistencyReport checkOrderSummary(){
+        return orderSummaryService.check();
+    }
+
+    /**
+     * 대량 주문 취소 작업 등록
+     * 조건에 맞는 ORDER 상태 주문을 백그라운드에서 batchSize 단위로 취소한다. 진행 상황은 작업 조회로 확인한다.
+     */
+    @PostMapping("/api/admin/order-cancel-jobs")
+    public OrderCancelJobDto submitOrderCancelJob(@RequestBody CreateOrderCancelJobRequest request){
+        Long jobId = orderCancelJobService.submit(request.getMemberId(), request.getOrderDateFrom(),
+                request.getOrderDateTo(), request.getBatchSize());
+        return new OrderCancelJobDto(orderCancelJobService.findOne(jobId));
+    }
+
+    @GetMapping("/api/admin/order-cancel-jobs")
+    public List<OrderCancelJobDto> orderCancelJobs(@RequestParam(value = "limit", defaultValue = "20") int limit){
+        return orderCancelJobService.findJobs(limit).stream()
+                .map(OrderCancelJobDto::new)
+                .collect(toList());
+    }
+
+    @GetMapping("/api/admin/order-cancel-jobs/{id}")
+    public OrderCancelJobDto orderCancelJob(@PathVariable("id") Long id){
+        return new OrderCancelJobDto(orderCancelJobService.findOne(id));
+    }
+
+    /**
+     * 실패한 작업을 마지막으로 처리한 주문 다음부터 다시 실행
+     */
+    @PostMapping("/api/admin/order-cancel-jobs/{id}/resume")
+    public OrderCancelJobDto resumeOrderCancelJob(@PathVariable("id") Long id){
+        orderCancelJobService.resume(id);
+        return new OrderCancelJobDto(orderCancelJobService.findOne(id));
+    }
+
+    @Data
+    static class CreateOrderCancelJobRequest {
+        private Long memberId;
+        private LocalDateTime orderDateFrom;
+        private LocalDateTime orderDateTo;
+        private int batchSize = 500;
+    }
+
+    @Data
+    static class OrderCancelJobDto {
+        private Long jobId;
+        private OrderCancelJobStatus status;
+        private Long memberId;
+        private LocalDateTime orderDateFrom;
+        private LocalDateTime orderDateTo;
+        private long targetCount;
+        private long canceledCount;
+        private long skippedCount;
+        private double progress; // 처리한 주문 / 대상 주문 (%)
+        private Long lastOrderId;
+        private String errorMessage;
+        private LocalDateTime createdAt;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        public OrderCancelJobDto(OrderCancelJob job){
+            jobId = job.getId();
+            status = job.getStatus();
+            memberId = job.getMemberId();
+            orderDateFrom = job.getOrderDateFrom();
+            orderDateTo = job.getOrderDateTo();
+            targetCount = job.getTargetCount();
+            canceledCount = job.getCanceledCount();
+            skippedCount = job.getSkippedCount();
+            long processed = canceledCount + skippedCount;
+            progress = job.isFinished() || targetCount == 0 ? 100.0 : Math.min(100.0, processed * 100.0 / targetCount);
+            lastOrderId = job.getLastOrderId();
+            errorMessage = job.getErrorMessage();
+            createdAt = job.getCreatedAt();
+            startedAt = job.getStartedAt();
+            finishedAt = job.getFinishedAt();
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class RebuildResponse {
+        private int rows;
+    }
+}
@@ -0,0 +1,21 @@
+package com.jpabook.jpashop.api;
+
+/**
+ * offset / limit 요청 값 검증 (잘못되면 IllegalArgumentException -> 400)
+ */
+final class ApiPaging {
+
+    static final int MAX_LIMIT = 1000;
+
+    private ApiPaging() {
+    }
+
+    /**
+     * offset 은 0 이상, limit 은 1~1000
+     */
+    static void checkOffsetLimit(int offset, int limit) {
+        if (offset < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("offset 은 0 이상, limit 은 1~" + MAX_LIMIT + " 이어야 합니다. offset=" + offset + ", limit=" + limit);
+        }
+    }
+}
@@ -1,20 +1,38 @@
 package com.jpabook.jpashop.api;
 
 import com.jpabook.jpashop.domain.*;
+import com.jpabook.jpashop.repository.OrderFetchPlan;
 import com.jpabook.jpashop.repository.OrderRepository;
+import com.jpabook.jpashop.repository.order.query.OrderFlatAssembler;
 import com.jpabook.jpashop.repository.order.query.OrderFlatDto;
-import com.jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import com.jpabook.jpashop.repository.order.query.OrderParallelQueryRepository;
 import com.jpabook.jpashop.repository.order.query.OrderQueryDto;
 import com.jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import com.jpabook.jpashop.service.OrderExportService;
+import com.jpabook.jpashop.service.OrderPageCount;
+import com.jpabook.jpashop.service.OrderService;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.util.stream.Collectors.*;
 
@@ -34,6 +52,9 @@ public class OrderApiController {
 
     private final OrderRepository orderRepository;
     private final OrderQueryRepository orderQueryRepository;
+    private final OrderParallelQueryRepository orderParallelQueryRepository;
+    private final OrderExportService orderExportService;
+    private final OrderService orderService;
 
     @GetMapping("/api/v1/orders")
     public List<Order> ordersV1(){
@@ -77,16 +98,155 @@ public class OrderApiController {
     @GetMapping("/api/v3.1/orders")
     public List<OrderDto> ordersV3_page(@RequestParam(value="offset", defaultValue ="0") int offset,
                                    @RequestParam(value="limit", defaultValue="100") int limit ) {
-        List<Order> orders = orderRepository.findAllWithMemberDelivery(offset, limit);
+        ApiPaging.checkOffsetLimit(offset, limit);
+        List<Order> orders = orderService.findOrdersWithMemberDelivery(offset, limit);
         List<OrderDto> result = orders.stream().map(o -> new OrderDto(o)).collect(toList());
         return result;
     }
 
+    /**
+     * 키셋 페이징
+     * offset 대신 이전 응답의 nextCursor를 넘기면 그 다음 주문부터 조회한다.
+     * 마지막 페이지면 nextCursor는 null
+     * @param cursor
+     * @param limit
+     * @return
+     */
+    @GetMapping("/api/v3.2/orders")
+    public OrderCursorPage ordersV3_keyset(@RequestParam(value="cursor", required = false) String cursor,
+                                           @RequestParam(value="limit", defaultValue="100") int limit) {
+        ApiPaging.checkOffsetLimit(0, limit);
+        List<Order> orders = orderService.findOrdersWithMemberDeliveryAfter(decodeCursor(cursor), limit + 1);
+        boolean hasNext = orders.size() > limit;
+        if (hasNext) {
+            orders = orders.subList(0, limit);
+        }
+        List<OrderDto> result = orders.stream().map(o -> new OrderDto(o)).collect(toList());
+        String nextCursor = hasNext ? encodeCursor(orders.get(orders.size() - 1).getId()) : null;
+        return new OrderCursorPage(result, nextCursor);
+    }
+
+    private static String encodeCursor(Long orderId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(orderId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다. cursor=" + cursor, e);
+        }
+    }
+
+    /**
+     * 검색 + 컬렉션 페치 조인 페이징
+     * v3 처럼 주문상품, 상품까지 페치 조인하지만 주문 id 한 페이지를 먼저 조회하고 그 주문만 페치 조인하므로
+     * 주문이 많아도 페이지 크기만큼만 메모리에 올라온다.
+     * count: EXACT(매번 count), CACHED(같은 조건이면 잠시 재사용), SKIP(count 생략, totalElements 는 최소 건수)
+     * 예) /api/v3.3/orders?orderStatus=ORDER&memberName=user1&page=0&size=50&count=CACHED
+     * @return
+     */
+    @GetMapping("/api/v3.3/orders")
+    public Page<OrderDto> ordersV3_searchPage(
+            @RequestParam(value = "memberName", required = false) String memberName,
+            @RequestParam(value = "orderStatus", required = false) OrderStatus orderStatus,
+            @RequestParam(value = "orderDateFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime orderDateFrom,
+            @RequestParam(value = "orderDateTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime orderDateTo,
+            @RequestParam(value = "deliveryStatus", required = false) DeliveryStatus deliveryStatus,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "100") int size,
+            @RequestParam(value = "count", defaultValue = "EXACT") OrderPageCount count) {
+        if (page < 0 || size < 1 || size > 1000) {
+            throw new IllegalArgumentException("page 는 0 이상, size 는 1~1000 이어야 합니다. page=" + page + ", size=" + size);
+        }
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName(memberName);
+        orderSearch.setOrderStatus(orderStatus);
+        orderSearch.setOrderDateFrom(orderDateFrom);
+        orderSearch.setOrderDateTo(orderDateTo);
+        orderSearch.setDeliveryStatus(deliveryStatus);
+        return orderService.findOrdersWithItems(orderSearch, PageRequest.of(page, size), count)
+                .map(OrderDto::new);
+    }
+
+    private static final List<String> ORDER_FIELDS = List.of("orderId", "name", "orderDate", "orderStatus", "address",
+            "totalPrice", "orderItems", "orderItems.itemName", "orderItems.orderPrice", "orderItems.count");
+
+    /**
+     * 필드 선택 + fetch plan 조회
+     * fields 로 응답에 필요한 필드만 고르면 필요한 연관관계만 entity graph 로 조인한다.
+     * - 주문 필드만: 회원, 배송만 조인하고 주문상품/상품은 읽지 않는다. (SUMMARY)
+     * - orderItems.orderPrice, orderItems.count: 주문상품까지 (WITH_ITEMS)
+     * - orderItems, orderItems.itemName: 상품까지 (FULL)
+     * plan(SUMMARY, WITH_ITEMS, FULL)을 직접 지정할 수 있고, fields 에 필요한 plan 보다 작으면 fields 기준을 따른다.
+     * 예) /api/v7/orders?fields=orderId,name,totalPrice
+     * @param fields 생략하면 전체 필드
+     * @param plan
+     * @param offset
+     * @param limit
+     * @return
+     */
+    @GetMapping("/api/v7/orders")
+    public List<Map<String, Object>> ordersV7(@RequestParam(value = "fields", required = false) List<String> fields,
+                                              @RequestParam(value = "plan", required = false) OrderFetchPlan plan,
+                                              @RequestParam(value = "offset", defaultValue = "0") int offset,
+                                              @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        ApiPaging.checkOffsetLimit(offset, limit);
+        Set<String> selected = new LinkedHashSet<>(fields == null || fields.isEmpty() ? ORDER_FIELDS : fields);
+        for (String field : selected) {
+            if (!ORDER_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("지원하지 않는 필드입니다. field=" + field);
+            }
+        }
+        OrderFetchPlan fetchPlan = OrderFetchPlan.forFields(selected).atLeast(plan == null ? OrderFetchPlan.SUMMARY : plan);
+        return orderService.findOrders(fetchPlan, offset, limit).stream()
+                .map(o -> toFields(o, selected))
+                .collect(toList());
+    }
+
+    private static Map<String, Object> toFields(Order order, Set<String> fields) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (fields.contains("orderId")) result.put("orderId", order.getId());
+        if (fields.contains("name")) result.put("name", order.getMember().getName());
+        if (fields.contains("orderDate")) result.put("orderDate", order.getOrderDate());
+        if (fields.contains("orderStatus")) result.put("orderStatus", order.getStatus());
+        if (fields.contains("address")) result.put("address", order.getDelivery().getAddress());
+        if (fields.contains("totalPrice")) result.put("totalPrice", order.getTotalPrice());
+
+        boolean allItemFields = fields.contains("orderItems");
+        boolean itemName = allItemFields || fields.contains("orderItems.itemName");
+        boolean orderPrice = allItemFields || fields.contains("orderItems.orderPrice");
+        boolean count = allItemFields || fields.contains("orderItems.count");
+        if (itemName || orderPrice || count) {
+            result.put("orderItems", order.getOrderItems().stream().map(oi -> {
+                Map<String, Object> item = new LinkedHashMap<>();
+                if (itemName) item.put("itemName", oi.getItem().getName());
+                if (orderPrice) item.put("orderPrice", oi.getOrderPrice());
+                if (count) item.put("count", oi.getCount());
+                return item;
+            }).collect(toList()));
+        }
+        return result;
+    }
+
     @GetMapping("/api/v4/orders")
     public List<OrderQueryDto> ordersV4(){
        return orderQueryRepository.findOrderQueryDtos();
     }
 
+    /**
+     * V4와 같은 응답을 주문 id 구간별로 나눠서 주문/주문상품을 병렬 조회
+     * @return
+     */
+    @GetMapping("/api/v4.1/orders")
+    public List<OrderQueryDto> ordersV4_parallel(){
+        return orderParallelQueryRepository.findOrderQueryDtos();
+    }
+
     @GetMapping("/api/v5/orders")
     public List<OrderQueryDto> ordersV5(){
         return orderQueryRepository.findAllDto_optimization();
@@ -96,25 +256,46 @@ public class OrderApiController {
      * 단점
      * 쿼리는 한번이지만 조인으로 인해 DB에서 애플리케이션에 전달하는 데이터에 중복 데이터가 추가되므로
      * 상황에 따라 V5 보다 더 느릴 수 도 있다.
-     * 애플리케이션에서 추가 작업이 크다.
-     * 페이징 불가능
+     * 애플리케이션에서 추가 작업이 크다. -> o.id 순으로 조회해서 OrderFlatAssembler로 한 번에 묶는다.
      * @return
      */
     @GetMapping("/api/v6/orders")
     public List<OrderQueryDto> ordersV6(){
         List<OrderFlatDto> flats = orderQueryRepository.findAllDto_flat();
-        return flats.stream()
-                .collect(groupingBy(o -> new OrderQueryDto(o.getOrderId(),
-                                o.getName(), o.getOrderDate(), o.getOrderStatus(), o.getAddress()),
-                        mapping(o -> new OrderItemQueryDto(o.getOrderId(),
-                                o.getItemName(), o.getOrderPrice(), o.getCount()), toList())
-                )).entrySet().stream()
-                .map(e -> new OrderQueryDto(e.getKey().getOrderId(),
-                        e.getKey().getName(), e.getKey().getOrderDate(), e.getKey().getOrderStatus(),
-                        e.getKey().getAddress(), e.getValue()))
-                .collect(toList());
+        return OrderFlatAssembler.assemble(flats);
     }
 
+    /**
+     * 주문 건수 기준 페이징
+     * @param offset
+     * @param limit
+     * @return
+     */
+    @GetMapping("/api/v6.1/orders")
+    public List<OrderQueryDto> ordersV6_page(@RequestParam(value="offset", defaultValue ="0") int offset,
+                                             @RequestParam(value="limit", defaultValue="100") int limit){
+        ApiPaging.checkOffsetLimit(offset, limit);
+        List<OrderFlatDto> flats = orderQueryRepository.findAllDto_flat(offset, limit);
+        return OrderFlatAssembler.assemble(flats);
+    }
+
+    /**
+     * V6 플랫 조회를 NDJSON 스트리밍으로 export
+     * 결과를 List로 모으지 않고 커서로 읽으면서 한 줄씩 응답에 바로 쓴다.
+     * 응답은 별도 스레드에서 쓰여지므로 트랜잭션은 OrderExportService에서 연다.
+     */
+    @GetMapping(value = "/api/v6/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody ordersV6_export() {
+        return out -> orderExportService.exportNdjson(out);
+    }
+
+
+    @Data
+    @AllArgsConstructor
+    static class OrderCursorPage {
+        private List<OrderDto> data;
+        private String nextCursor;
+    }
 
     @Data
     static class OrderDto {
@@ -0,0 +1,72 @@
+package com.jpabook.jpashop.api;
+
+import com.jpabook.jpashop.service.BatchOrder;
+import com.jpabook.jpashop.service.BatchOrderResult;
+import com.jpabook.jpashop.service.OrderService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.*;
+
+@RestController
+@RequiredArgsConstructor
+public class OrderBatchApiController {
+
+    private final OrderService orderService;
+
+    /**
+     * 대량 주문
+     * 여러 주문(주문마다 여러 상품)을 한 번에 받아서 한 트랜잭션으로 처리하고 주문별 성공/실패를 돌려준다.
+     */
+    @PostMapping("/api/v1/orders/batch")
+    public BatchOrderResponse orderBatchV1(@RequestBody @Valid BatchOrderRequest request){
+        List<BatchOrder> batchOrders = request.getOrders().stream()
+                .map(o -> new BatchOrder(o.getMemberId(), o.getLines().stream()
+                        .map(l -> new BatchOrder.Line(l.getItemId(), l.getCount()))
+                        .collect(toList())))
+                .collect(toList());
+        List<BatchOrderResult> results = orderService.orderBatch(batchOrders);
+        int successCount = (int) results.stream().filter(BatchOrderResult::isSuccess).count();
+        return new BatchOrderResponse(successCount, results.size() - successCount, results);
+    }
+
+    @Data
+    static class BatchOrderRequest {
+        @NotEmpty @Valid
+        private List<OrderRequest> orders;
+    }
+
+    @Data
+    static class OrderRequest {
+        @NotNull
+        private Long memberId;
+        @NotEmpty @Valid
+        private List<OrderLineRequest> lines;
+    }
+
+    @Data
+    static class OrderLineRequest {
+        @NotNull
+        private Long itemId;
+        @Positive
+        private int count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class BatchOrderResponse {
+        private int successCount;
+        private int failureCount;
+        private List<BatchOrderResult> results;
+    }
+}
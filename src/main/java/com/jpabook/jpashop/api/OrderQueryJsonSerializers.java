@@ -0,0 +1,129 @@
+package com.jpabook.jpashop.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import com.jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * V4/V5/V6 주문 조회 DTO 전용 JSON 직렬화
+ * 리플렉션 기반 BeanSerializer 대신 필드를 직접 쓴다.
+ * - 필드명은 미리 인코딩해 둔 SerializedString 을 재사용한다.
+ * - 중간 트리(JsonNode) 없이 응답 스트림의 JsonGenerator 에 바로 쓴다.
+ * 출력 형식(필드 순서, null 처리, 날짜 형식)은 기존 기본 직렬화와 같다.
+ */
+@JsonComponent
+public class OrderQueryJsonSerializers {
+
+    private static final SerializedString ORDER_ID = new SerializedString("orderId");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString ORDER_DATE = new SerializedString("orderDate");
+    private static final SerializedString ORDER_STATUS = new SerializedString("orderStatus");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString CITY = new SerializedString("city");
+    private static final SerializedString STREET = new SerializedString("street");
+    private static final SerializedString ZIPCODE = new SerializedString("zipcode");
+    private static final SerializedString ORDER_ITEMS = new SerializedString("orderItems");
+    private static final SerializedString ITEM_NAME = new SerializedString("itemName");
+    private static final SerializedString ORDER_PRICE = new SerializedString("orderPrice");
+    private static final SerializedString COUNT = new SerializedString("count");
+
+    /**
+     * 스프링 컨텍스트 없이 ObjectMapper 에 등록할 때 사용 (벤치마크)
+     */
+    public static SimpleModule module() {
+        return new SimpleModule("OrderQueryJsonSerializers")
+                .addSerializer(OrderQueryDto.class, new OrderQueryDtoSerializer())
+                .addSerializer(OrderItemQueryDto.class, new OrderItemQueryDtoSerializer());
+    }
+
+    public static class OrderQueryDtoSerializer extends JsonSerializer<OrderQueryDto> {
+
+        @Override
+        public void serialize(OrderQueryDto order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(order);
+            writeLong(gen, ORDER_ID, order.getOrderId());
+            gen.writeFieldName(NAME);
+            gen.writeString(order.getName());
+            gen.writeFieldName(ORDER_DATE);
+            if (order.getOrderDate() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(order.getOrderDate()));
+            }
+            gen.writeFieldName(ORDER_STATUS);
+            gen.writeString(order.getOrderStatus() == null ? null : order.getOrderStatus().name());
+            gen.writeFieldName(ADDRESS);
+            writeAddress(gen, order.getAddress());
+            gen.writeFieldName(ORDER_ITEMS);
+            List<OrderItemQueryDto> orderItems = order.getOrderItems();
+            if (orderItems == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray(orderItems, orderItems.size());
+                for (int i = 0; i < orderItems.size(); i++) {
+                    writeOrderItem(gen, orderItems.get(i));
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeAddress(JsonGenerator gen, Address address) throws IOException {
+            if (address == null) {
+                gen.writeNull();
+                return;
+            }
+            gen.writeStartObject(address);
+            gen.writeFieldName(CITY);
+            gen.writeString(address.getCity());
+            gen.writeFieldName(STREET);
+            gen.writeString(address.getStreet());
+            gen.writeFieldName(ZIPCODE);
+            gen.writeString(address.getZipcode());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class OrderItemQueryDtoSerializer extends JsonSerializer<OrderItemQueryDto> {
+
+        @Override
+        public void serialize(OrderItemQueryDto orderItem, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeOrderItem(gen, orderItem);
+        }
+    }
+
+    private static void writeOrderItem(JsonGenerator gen, OrderItemQueryDto orderItem) throws IOException {
+        if (orderItem == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(orderItem);
+        writeLong(gen, ORDER_ID, orderItem.getOrderId());
+        gen.writeFieldName(ITEM_NAME);
+        gen.writeString(orderItem.getItemName());
+        gen.writeFieldName(ORDER_PRICE);
+        gen.writeNumber(orderItem.getOrderPrice());
+        gen.writeFieldName(COUNT);
+        gen.writeNumber(orderItem.getCount());
+        gen.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator gen, SerializedString fieldName, Long value) throws IOException {
+        gen.writeFieldName(fieldName);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+}
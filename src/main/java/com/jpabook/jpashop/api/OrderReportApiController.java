@@ -0,0 +1,53 @@
+package com.jpabook.jpashop.api;
+
+import com.jpabook.jpashop.repository.order.report.DailyRevenueDto;
+import com.jpabook.jpashop.repository.order.report.MemberRevenueDto;
+import com.jpabook.jpashop.repository.order.report.OrderReportRepository;
+import com.jpabook.jpashop.repository.order.report.StatusRevenueDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class OrderReportApiController {
+
+    private final OrderReportRepository orderReportRepository;
+
+    /**
+     * 일별 매출 (from ~ to 포함, 기본 최근 30일)
+     */
+    @GetMapping("/api/v1/reports/revenue/daily")
+    public List<DailyRevenueDto> dailyRevenue(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from 은 to 보다 늦을 수 없습니다. from=" + start + ", to=" + end);
+        }
+        return orderReportRepository.findDailyRevenue(start.atStartOfDay(), end.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * 회원별 매출 상위 (limit 1~1000)
+     */
+    @GetMapping("/api/v1/reports/revenue/members")
+    public List<MemberRevenueDto> memberRevenue(@RequestParam(value = "limit", defaultValue = "100") int limit) {
+        ApiPaging.checkOffsetLimit(0, limit);
+        return orderReportRepository.findTopMemberRevenue(limit);
+    }
+
+    /**
+     * 주문 상태별
+     */
+    @GetMapping("/api/v1/reports/revenue/status")
+    public List<StatusRevenueDto> statusRevenue() {
+        return orderReportRepository.findRevenueByStatus();
+    }
+}
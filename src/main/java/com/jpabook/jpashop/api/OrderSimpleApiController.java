@@ -4,12 +4,16 @@ import com.jpabook.jpashop.domain.Address;
 import com.jpabook.jpashop.domain.Order;
 import com.jpabook.jpashop.domain.OrderSearch;
 import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.domain.OrderSummary;
 import com.jpabook.jpashop.repository.OrderRepository;
 import com.jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryDto;
 import com.jpabook.jpashop.repository.order.simplequery.OrderSimpleQueryRepository;
+import com.jpabook.jpashop.service.OrderService;
+import com.jpabook.jpashop.service.OrderSummaryService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
@@ -35,6 +39,8 @@ public class OrderSimpleApiController {
 
     private final OrderRepository orderRepository;
     private final OrderSimpleQueryRepository orderSimpleQueryRepository;
+    private final OrderService orderService;
+    private final OrderSummaryService orderSummaryService;
 
     /**
      * V1. 엔티티 직접 노출
@@ -71,6 +77,56 @@ public class OrderSimpleApiController {
     public List<OrderSimpleQueryDto> ordersV4(){
         return orderSimpleQueryRepository.findOrderDtos();
     }
+
+    /**
+     * 회원 이름 일부 + 주문 상태 검색
+     * 회원 이름은 MemberNameIndex로 회원 id를 찾은 뒤 o.member.id in 으로 조회한다.
+     */
+    @GetMapping("/api/v5/simple-orders")
+    public List<OrderSimpleDto> ordersV5(@RequestParam(value = "memberName", required = false) String memberName,
+                                        @RequestParam(value = "orderStatus", required = false) OrderStatus orderStatus){
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName(memberName);
+        orderSearch.setOrderStatus(orderStatus);
+        return orderService.findOrdersByMemberNameFragment(orderSearch).stream()
+                .map(OrderSimpleDto::new)
+                .collect(toList());
+    }
+    /**
+     * V6. order_summary 읽기 모델에서 조회
+     * 주문, 회원, 배송, 주문상품 조인 없이 한 테이블만 읽는다. (주문 총액, 주문상품 수 포함)
+     * V1~V4 는 조회 전략 비교용(OrderReadStrategyBenchmark)으로 그대로 두고 요약 목록은 V6 로 제공한다.
+     */
+    @GetMapping("/api/v6/simple-orders")
+    public List<OrderSummaryDto> ordersV6(@RequestParam(value = "offset", defaultValue = "0") int offset,
+                                          @RequestParam(value = "limit", defaultValue = "100") int limit){
+        ApiPaging.checkOffsetLimit(offset, limit);
+        return orderSummaryService.findSummaries(offset, limit).stream()
+                .map(OrderSummaryDto::new)
+                .collect(toList());
+    }
+
+    @Data
+    static class OrderSummaryDto {
+        private Long orderId;
+        private String name;
+        private LocalDateTime orderDate;
+        private OrderStatus orderStatus;
+        private Address address;
+        private int totalPrice;
+        private int lineCount;
+
+        public OrderSummaryDto(OrderSummary summary){
+            orderId = summary.getOrderId();
+            name = summary.getMemberName();
+            orderDate = summary.getOrderDate();
+            orderStatus = summary.getStatus();
+            address = summary.getAddress();
+            totalPrice = summary.getTotalPrice();
+            lineCount = summary.getLineCount();
+        }
+    }
+
     @Data
     private class OrderSimpleDto {
         private Long orderId;
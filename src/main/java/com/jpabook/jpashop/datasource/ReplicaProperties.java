@@ -0,0 +1,29 @@
+package com.jpabook.jpashop.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본 설정 (jpashop.datasource.replica.*)
+ * 계정은 비워두면 spring.datasource 계정을 그대로 쓴다.
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "jpashop.datasource.replica")
+public class ReplicaProperties {
+    private boolean enabled;
+    private List<String> urls = new ArrayList<>();
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    /**
+     * 복제 지연(ms)을 돌려주는 쿼리
+     * 예) PostgreSQL: select coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+     */
+    private String lagQuery = "select 0";
+    private long maxLagMillis = 1000;
+    private long probeInterval = 5000;
+}
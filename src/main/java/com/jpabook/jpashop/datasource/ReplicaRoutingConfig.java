@@ -0,0 +1,80 @@
+package com.jpabook.jpashop.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 복제본 라우팅 (jpashop.datasource.replica.enabled=true 일 때만)
+ * spring.datasource 는 primary 가 되고, @Transactional(readOnly = true) 는 복제본으로 간다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jpashop.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties,
+                                                             MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+            String name = "replica-" + i;
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaProperties.getUrls().get(i))
+                    .username(StringUtils.hasText(replicaProperties.getUsername())
+                            ? replicaProperties.getUsername() : dataSourceProperties.determineUsername())
+                    .password(replicaProperties.getPassword() != null
+                            ? replicaProperties.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setReadOnly(true);
+            dataSource.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, dataSource));
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                replicaProperties.getLagQuery(), replicaProperties.getMaxLagMillis());
+        Gauge.builder("datasource.replica.healthy", routingDataSource, ReplicaRoutingDataSource::healthyReplicas)
+                .register(meterRegistry);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${jpashop.datasource.replica.probe-interval:5000}")
+    public void probeReplicas() {
+        if (routingDataSource != null) {
+            routingDataSource.probe();
+        }
+    }
+}
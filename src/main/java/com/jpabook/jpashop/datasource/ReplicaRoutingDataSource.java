@@ -0,0 +1,109 @@
+package com.jpabook.jpashop.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * readOnly 트랜잭션은 복제본으로, 나머지는 primary 로 보내는 DataSource
+ *
+ * - 복제본은 라운드로빈으로 고르고, 지연이 max-lag-millis 를 넘거나 접속이 안 되는 복제본은 건너뛴다.
+ * - 쓸 수 있는 복제본이 없으면 primary 로 읽는다.
+ * - 트랜잭션의 readOnly 여부는 트랜잭션 시작 후에 정해지므로 LazyConnectionDataSourceProxy 로 감싸서
+ *   첫 쿼리 시점에 커넥션을 가져오도록 해야 한다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, String lagQuery, long maxLagMillis) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * 복제본마다 lag-query 로 지연을 확인해서 사용 가능 여부를 갱신
+     */
+    public void probe() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                replica.lagMillis = rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                healthy = replica.lagMillis <= maxLagMillis;
+            } catch (Exception e) {
+                replica.lagMillis = Long.MAX_VALUE;
+                healthy = false;
+            }
+            if (replica.healthy != healthy) {
+                log.warn("복제본 상태 변경. replica={}, healthy={}, lagMillis={}", replica.name, healthy, replica.lagMillis);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    public long healthyReplicas() {
+        return replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+
+    public static class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -9,7 +9,9 @@ import lombok.Setter;
 @Getter @Setter
 public class Delivery {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "delivery_seq_generator")
+    @SequenceGenerator(name = "delivery_seq_generator", sequenceName = "delivery_seq", allocationSize = IdAllocationSize.DELIVERY)
     @Column(name="delivery_id")
     private Long id;
 
@@ -0,0 +1,17 @@
+package com.jpabook.jpashop.domain;
+
+/**
+ * 엔티티별 시퀀스 allocationSize
+ * 시퀀스를 한 번 호출할 때 미리 확보하는 id 개수 (hibernate.id.optimizer.pooled.preferred: pooled-lo)
+ * 한 번에 많이 저장되는 엔티티일수록 크게 잡으면 insert 마다 시퀀스를 호출하지 않아 JDBC batch insert가 끊기지 않는다.
+ * 애플리케이션이 재시작되면 확보해두고 쓰지 않은 id는 건너뛴다.
+ */
+public final class IdAllocationSize {
+    public static final int MEMBER = 50;
+    public static final int ORDER = 100;
+    public static final int DELIVERY = 100;
+    public static final int ORDER_ITEM = 200; // 주문 하나에 주문상품 여러 개
+
+    private IdAllocationSize() {
+    }
+}
@@ -13,11 +13,31 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_order_date", columnList = "status, order_date"), // 상태 + 주문일 검색
+        @Index(name = "idx_orders_member_id", columnList = "member_id")
+})
+// 주문 조회 fetch plan (OrderFetchPlan): 필요한 연관관계만 한 번에 조인해서 가져온다.
+@NamedEntityGraph(name = "Order.summary", attributeNodes = {
+        @NamedAttributeNode("member"),
+        @NamedAttributeNode("delivery")
+})
+@NamedEntityGraph(name = "Order.withItems", attributeNodes = {
+        @NamedAttributeNode("member"),
+        @NamedAttributeNode("delivery"),
+        @NamedAttributeNode("orderItems")
+})
+@NamedEntityGraph(name = "Order.full", attributeNodes = {
+        @NamedAttributeNode("member"),
+        @NamedAttributeNode("delivery"),
+        @NamedAttributeNode(value = "orderItems", subgraph = "orderItems.item")
+}, subgraphs = @NamedSubgraph(name = "orderItems.item", attributeNodes = @NamedAttributeNode("item")))
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Order {
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq_generator")
+    @SequenceGenerator(name = "orders_seq_generator", sequenceName = "orders_seq", allocationSize = IdAllocationSize.ORDER)
     @Column(name="order_id")
     private Long id;
 
@@ -37,6 +57,16 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;  // 주문 상태 (ORDER, CANCEL)
 
+    /**
+     * 주문 총액 / 주문상품 수
+     * 주문상품을 추가할 때 함께 갱신한다. 총액을 볼 때마다 주문상품 컬렉션을 로딩하지 않아도 되고
+     * 매출 집계를 SQL sum/group by 로 할 수 있다. 주문을 취소해도 금액은 그대로 두고 상태로 구분한다.
+     */
+    @Setter(AccessLevel.NONE)
+    private int totalPrice;
+    @Setter(AccessLevel.NONE)
+    private int lineCount;
+
     // == 연관관계 메서드 ==//
     public void setMember(Member member){
         this.member = member;
@@ -45,6 +75,8 @@ public class Order {
     public void addOrderItem(OrderItem orderItem){
         orderItems.add(orderItem);
         orderItem.setOrder(this);
+        totalPrice += orderItem.getTotalPrice();
+        lineCount++;
     }
     public void setDelivery(Delivery delivery){
         this.delivery = delivery;
@@ -69,25 +101,21 @@ public class Order {
      * 주문 취소
      */
     public void cancel(){
-        if(delivery.getStatus() == DeliveryStatus.COMP){
-            throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다.");
-        }
-
-        this.setStatus(OrderStatus.CANCEL);
+        markCanceled();
         for(OrderItem orderItem : orderItems){
             orderItem.cancel();
         }
     }
 
-    //== 조회 로직 ==//
     /**
-     * 전체 주문 가격 조회
+     * 주문 상태만 취소로 변경
+     * 재고 복구를 호출하는 쪽에서 따로 처리할 때 사용한다. (재고 예약 버퍼 등)
      */
-    public int getTotalPrice(){
-        int totalPrice = orderItems.stream().mapToInt(OrderItem::getTotalPrice).sum();
-//        for(OrderItem orderItem: orderItems){
-//            totalPrice += orderItem.getTotalPrice();
-//        }
-        return totalPrice;
+    public void markCanceled(){
+        if(delivery.getStatus() == DeliveryStatus.COMP){
+            throw new IllegalStateException("이미 배송완료된 상품은 취소가 불가능합니다.");
+        }
+
+        this.setStatus(OrderStatus.CANCEL);
     }
 }
@@ -0,0 +1,112 @@
+package com.jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 대량 주문 취소 작업 (order_cancel_job)
+ * 조건(회원, 주문일 기간)에 맞는 ORDER 상태 주문을 주문 id 순서로 batchSize 씩 취소한다.
+ * 배치마다 주문 취소와 진행 상황(lastOrderId, 건수)을 같은 트랜잭션으로 커밋하므로
+ * 중간에 실패하거나 애플리케이션이 재시작되어도 lastOrderId 다음 주문부터 이어서 처리할 수 있다.
+ */
+@Entity
+@Table(name = "order_cancel_job")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderCancelJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_cancel_job_seq_generator")
+    @SequenceGenerator(name = "order_cancel_job_seq_generator", sequenceName = "order_cancel_job_seq", allocationSize = 1)
+    @Column(name = "order_cancel_job_id")
+    private Long id;
+
+    //== 취소 조건 ==//
+    @Column(name = "member_id")
+    private Long memberId;
+    private LocalDateTime orderDateFrom; // 포함
+    private LocalDateTime orderDateTo;   // 미포함
+
+    private int batchSize;
+
+    @Enumerated(EnumType.STRING)
+    private OrderCancelJobStatus status;
+
+    private long targetCount;   // 작업 생성 시점의 대상 주문 수 (진행률 표시용)
+    private long canceledCount;
+    private long skippedCount;  // 배송완료라서 취소하지 못한 주문
+    private Long lastOrderId;   // 마지막으로 처리한 주문 id (재개 지점)
+
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    //== 생성 메서드 ==//
+    public static OrderCancelJob createOrderCancelJob(Long memberId, LocalDateTime orderDateFrom,
+                                                      LocalDateTime orderDateTo, int batchSize, long targetCount) {
+        if (memberId == null && orderDateFrom == null && orderDateTo == null) {
+            throw new IllegalArgumentException("취소 조건(memberId, orderDateFrom, orderDateTo)이 하나 이상 필요합니다.");
+        }
+        if (batchSize < 1 || batchSize > 1000) {
+            throw new IllegalArgumentException("batchSize 는 1~1000 이어야 합니다. batchSize=" + batchSize);
+        }
+        OrderCancelJob job = new OrderCancelJob();
+        job.memberId = memberId;
+        job.orderDateFrom = orderDateFrom;
+        job.orderDateTo = orderDateTo;
+        job.batchSize = batchSize;
+        job.targetCount = targetCount;
+        job.status = OrderCancelJobStatus.QUEUED;
+        job.createdAt = LocalDateTime.now();
+        return job;
+    }
+
+    //==비즈니스 로직==//
+    public void run() {
+        if (status != OrderCancelJobStatus.RUNNING) {
+            this.status = OrderCancelJobStatus.RUNNING;
+            this.errorMessage = null;
+            if (startedAt == null) {
+                this.startedAt = LocalDateTime.now();
+            }
+        }
+    }
+
+    /**
+     * 배치 하나 처리 결과 반영
+     */
+    public void progress(Long lastOrderId, int canceled, int skipped) {
+        this.lastOrderId = lastOrderId;
+        this.canceledCount += canceled;
+        this.skippedCount += skipped;
+    }
+
+    public void complete() {
+        this.status = OrderCancelJobStatus.COMPLETED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void fail(String errorMessage) {
+        this.status = OrderCancelJobStatus.FAILED;
+        this.errorMessage = errorMessage != null && errorMessage.length() > 255 ? errorMessage.substring(0, 255) : errorMessage;
+    }
+
+    /**
+     * 실패한 작업을 lastOrderId 다음부터 다시 실행하도록 대기 상태로 되돌린다.
+     */
+    public void resume() {
+        if (status != OrderCancelJobStatus.FAILED) {
+            throw new IllegalStateException("실패한 작업만 재개할 수 있습니다. status=" + status);
+        }
+        this.status = OrderCancelJobStatus.QUEUED;
+    }
+
+    public boolean isFinished() {
+        return status == OrderCancelJobStatus.COMPLETED;
+    }
+}
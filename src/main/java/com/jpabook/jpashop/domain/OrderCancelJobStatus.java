@@ -0,0 +1,5 @@
+package com.jpabook.jpashop.domain;
+
+public enum OrderCancelJobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
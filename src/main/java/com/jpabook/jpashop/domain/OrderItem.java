@@ -10,10 +10,13 @@ import lombok.Setter;
 import org.hibernate.mapping.Join;
 
 @Entity
+@Table(indexes = @Index(name = "idx_order_item_order_id", columnList = "order_id"))
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class OrderItem {
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq_generator")
+    @SequenceGenerator(name = "order_item_seq_generator", sequenceName = "order_item_seq", allocationSize = IdAllocationSize.ORDER_ITEM)
     @Column(name="order_item_id")
     private Long id;
 
@@ -31,12 +34,21 @@ public class OrderItem {
 
     //== 생성 매서드 == //
     public static OrderItem createOrderItem(Item item, int orderPrice, int count){
+        OrderItem orderItem = createReservedOrderItem(item, orderPrice, count);
+
+        item.removeStock(count);
+        return orderItem;
+    }
+
+    /**
+     * 재고를 이미 DB에서 차감(예약)한 경우의 생성 메서드
+     * 상품 엔티티의 재고는 건드리지 않는다.
+     */
+    public static OrderItem createReservedOrderItem(Item item, int orderPrice, int count){
         OrderItem orderItem = new OrderItem();
         orderItem.setItem(item);
         orderItem.setOrderPrice(orderPrice);
         orderItem.setCount(count);
-
-        item.removeStock(count);
         return orderItem;
     }
     //==비즈니스 로직==//
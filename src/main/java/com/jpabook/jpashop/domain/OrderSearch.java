@@ -3,9 +3,14 @@ package com.jpabook.jpashop.domain;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter @Setter
 public class OrderSearch {
 
     private String memberName; //회원이름
     private OrderStatus orderStatus; // 주문상태 [ORDER, CANCEL]
+    private LocalDateTime orderDateFrom; // 주문일 시작 (포함)
+    private LocalDateTime orderDateTo; // 주문일 끝 (미포함)
+    private DeliveryStatus deliveryStatus; // 배송상태 [READY, COMP]
 }
@@ -0,0 +1,60 @@
+package com.jpabook.jpashop.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 목록 조회용 읽기 모델 (order_summary)
+ * 주문, 회원, 배송, 주문상품을 조인하지 않고 한 테이블에서 목록을 조회하기 위해 비정규화해 둔다.
+ * 주문/주문취소/회원 이름 변경 시 같은 트랜잭션 안에서 OrderSummaryService 가 갱신한다.
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_member_id", columnList = "member_id"),
+        @Index(name = "idx_order_summary_status_order_date", columnList = "status, order_date")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "member_id")
+    private Long memberId;
+    private String memberName;
+    private LocalDateTime orderDate;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Embedded
+    private Address address;
+
+    private int totalPrice;
+    private int lineCount;
+
+    //== 생성 메서드 ==//
+    public static OrderSummary createOrderSummary(Order order){
+        OrderSummary summary = new OrderSummary();
+        summary.orderId = order.getId();
+        summary.memberId = order.getMember().getId();
+        summary.memberName = order.getMember().getName();
+        summary.orderDate = order.getOrderDate();
+        summary.status = order.getStatus();
+        summary.address = order.getDelivery().getAddress();
+        summary.totalPrice = order.getTotalPrice();
+        summary.lineCount = order.getLineCount();
+        return summary;
+    }
+
+    //==비즈니스 로직==//
+    public void cancel(){
+        this.status = OrderStatus.CANCEL;
+    }
+}
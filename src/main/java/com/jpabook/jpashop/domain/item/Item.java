@@ -5,11 +5,15 @@ import com.jpabook.jpashop.exception.NotEnoughStockException;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 //@BatchSize(100)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시, 하위 타입(Book, Album, Movie)도 같은 영역을 사용
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE) // 한 테이블의 모든 상속된 변수들 컬럼 생성
 @Getter @Setter
 public abstract class Item {
@@ -38,7 +42,6 @@ public abstract class Item {
      */
     public void removeStock(int quentity){
         int restStock = this.stockQuantity - quentity;
-        System.out.println("restStock="+restStock);
         if(restStock < 0){
             throw new NotEnoughStockException("read more Stock");
         }
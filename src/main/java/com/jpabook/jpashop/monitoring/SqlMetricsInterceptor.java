@@ -0,0 +1,82 @@
+package com.jpabook.jpashop.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청(엔드포인트)별 SQL 지표
+ * - sql.request.statements : 요청당 실행한 SQL 수
+ * - sql.request.rows       : 요청당 읽은 row 수
+ * - sql.request.time       : 요청당 SQL 실행 시간
+ * - sql.request.n_plus_one : 같은 SQL이 한 요청에서 n-plus-one-threshold 번 넘게 실행된 요청 수 (N+1 의심)
+ * uri 태그는 매핑된 URL 패턴이다. (/api/v2/orders, /api/v2/members/{id} ...)
+ */
+@Slf4j
+@Component
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+
+    public SqlMetricsInterceptor(MeterRegistry meterRegistry,
+                                 @Value("${jpashop.sql-metrics.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            SqlRequestStats.start(pattern != null ? pattern.toString() : "UNKNOWN");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(SqlRequestStats.finish());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(SqlRequestStats.finish());
+    }
+
+    private void record(SqlRequestStats stats) {
+        if (stats == null) {
+            return;
+        }
+        String uri = stats.getUri();
+        DistributionSummary.builder("sql.request.statements").tag("uri", uri)
+                .publishPercentileHistogram().register(meterRegistry)
+                .record(stats.getStatementCount());
+        DistributionSummary.builder("sql.request.rows").tag("uri", uri)
+                .publishPercentileHistogram().register(meterRegistry)
+                .record(stats.getRowCount());
+        Timer.builder("sql.request.time").tag("uri", uri)
+                .publishPercentileHistogram().register(meterRegistry)
+                .record(stats.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        for (Map.Entry<String, Integer> entry : stats.getStatementCountBySql().entrySet()) {
+            if (entry.getValue() > nPlusOneThreshold) {
+                Counter.builder("sql.request.n_plus_one").tag("uri", uri).register(meterRegistry).increment();
+                log.warn("N+1 의심: uri={}, 같은 SQL {}회 실행, sql={}", uri, entry.getValue(), entry.getKey());
+                break;
+            }
+        }
+    }
+}
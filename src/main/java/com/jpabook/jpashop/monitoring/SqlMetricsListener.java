@@ -0,0 +1,33 @@
+package com.jpabook.jpashop.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy로 실행되는 모든 JDBC 문장을 현재 요청의 SqlRequestStats에 기록한다.
+ * (p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록)
+ * 요청 밖(스케줄러, 별도 스레드)에서 실행된 SQL은 집계하지 않는다.
+ */
+@Component
+public class SqlMetricsListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.statementExecuted(statementInformation.getSql(), timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null && hasNext) {
+            stats.rowFetched();
+        }
+    }
+}
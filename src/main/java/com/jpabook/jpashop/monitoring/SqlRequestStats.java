@@ -0,0 +1,50 @@
+package com.jpabook.jpashop.monitoring;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 요청 하나에서 실행된 SQL 통계
+ * 요청을 처리하는 스레드의 ThreadLocal에 보관한다.
+ */
+@Getter
+public class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final String uri;
+    private int statementCount;
+    private long rowCount;
+    private long elapsedNanos;
+    private final Map<String, Integer> statementCountBySql = new HashMap<>();
+
+    private SqlRequestStats(String uri) {
+        this.uri = uri;
+    }
+
+    public static void start(String uri) {
+        CURRENT.set(new SqlRequestStats(uri));
+    }
+
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlRequestStats finish() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    void statementExecuted(String sql, long elapsedNanos) {
+        statementCount++;
+        this.elapsedNanos += elapsedNanos;
+        statementCountBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void rowFetched() {
+        rowCount++;
+    }
+}
@@ -0,0 +1,48 @@
+package com.jpabook.jpashop.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IN 절 파라미터 분할
+ * id 목록을 정해진 크기(10/50/100/500)로 나누고 모자란 자리는 마지막 id로 채운다.
+ * IN 절 길이가 네 가지로 고정되므로 쿼리 플랜 캐시(하이버네이트, DB) 적중률이 유지되고
+ * id가 아무리 많아도 DB 바인드 파라미터 제한을 넘지 않는다.
+ */
+public final class InQueryChunks {
+
+    private static final int[] CHUNK_SIZES = {10, 50, 100, 500};
+    private static final int MAX_CHUNK_SIZE = CHUNK_SIZES[CHUNK_SIZES.length - 1];
+
+    private InQueryChunks() {
+    }
+
+    public static List<List<Long>> split(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        for (int from = 0; from < ids.size(); from += MAX_CHUNK_SIZE) {
+            int to = Math.min(from + MAX_CHUNK_SIZE, ids.size());
+            chunks.add(pad(ids.subList(from, to)));
+        }
+        return chunks;
+    }
+
+    private static List<Long> pad(List<Long> chunk) {
+        int size = chunkSize(chunk.size());
+        List<Long> padded = new ArrayList<>(size);
+        padded.addAll(chunk);
+        Long last = chunk.get(chunk.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    private static int chunkSize(int count) {
+        for (int size : CHUNK_SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+        return MAX_CHUNK_SIZE;
+    }
+}
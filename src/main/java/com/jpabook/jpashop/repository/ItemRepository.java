@@ -2,10 +2,15 @@ package com.jpabook.jpashop.repository;
 
 import com.jpabook.jpashop.domain.item.Item;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
@@ -24,8 +29,65 @@ public class ItemRepository {
         return em.find(Item.class, id);
     }
 
+    /**
+     * 상품 목록은 쿼리 캐시 사용
+     * 상품 테이블이 변경되면 (재고 변경 포함) 캐시된 결과는 무효화된다.
+     */
     public List<Item> findAll(){
         return em.createQuery("select i from Item i", Item.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
                 .getResultList();
     }
+
+    /**
+     * 여러 상품을 쓰기 잠금(select ... for update)으로 조회
+     * 잠금 순서를 id 순으로 고정해서 동시에 실행되는 대량 주문끼리 교착 상태가 생기지 않게 한다.
+     */
+    public List<Item> findAllByIdsForUpdate(List<Long> ids){
+        List<Long> sortedIds = ids.stream().distinct().sorted().collect(Collectors.toList());
+        List<Item> result = new ArrayList<>(sortedIds.size());
+        for (List<Long> chunk : InQueryChunks.split(sortedIds)) {
+            result.addAll(em.createQuery("select i from Item i where i.id in :ids order by i.id", Item.class)
+                    .setParameter("ids", chunk)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    /**
+     * 상품 재고 수량 조회 (2차 캐시를 거치지 않고 DB에서 읽는다)
+     */
+    public Optional<Integer> findStockQuantity(Long itemId){
+        return em.createQuery("select i.stockQuantity from Item i where i.id = :itemId", Integer.class)
+                .setParameter("itemId", itemId)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * 재고 원자적 차감
+     * 재고 확인과 차감을 조건부 update 한 번으로 처리하므로 동시에 주문이 들어와도 초과 판매가 없다.
+     * 벌크 연산이라 영속성 컨텍스트에 이미 올라와 있는 상품 엔티티의 재고는 갱신되지 않는다.
+     * @return 차감 성공 여부 (재고가 부족하면 false)
+     */
+    public boolean removeStock(Long itemId, int quantity){
+        int updated = em.createQuery("update Item i set i.stockQuantity = i.stockQuantity - :quantity" +
+                        " where i.id = :itemId and i.stockQuantity >= :quantity")
+                .setParameter("quantity", quantity)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+        return updated == 1;
+    }
+
+    /**
+     * 재고 원자적 증가
+     */
+    public void addStock(Long itemId, int quantity){
+        em.createQuery("update Item i set i.stockQuantity = i.stockQuantity + :quantity" +
+                        " where i.id = :itemId")
+                .setParameter("quantity", quantity)
+                .setParameter("itemId", itemId)
+                .executeUpdate();
+    }
 }
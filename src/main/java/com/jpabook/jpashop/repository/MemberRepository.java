@@ -6,6 +6,7 @@ import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
@@ -19,6 +20,14 @@ public class MemberRepository {
         em.persist(member);
     }
 
+    /**
+     * 쓰기 지연된 insert/update 를 바로 실행
+     * 제약 조건 위반은 @Repository 예외 변환으로 DataIntegrityViolationException 이 된다.
+     */
+    public void flush(){
+        em.flush();
+    }
+
     public Member findOne(Long id){
         return em.find(Member.class, id);
     }
@@ -28,6 +37,24 @@ public class MemberRepository {
                 .getResultList();
     }
 
+    public List<Member> findAllByIds(List<Long> ids){
+        List<Member> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : InQueryChunks.split(ids)) {
+            result.addAll(em.createQuery("select m from Member m where m.id in :ids", Member.class)
+                    .setParameter("ids", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    /**
+     * 회원 이름 색인용 (id, name)
+     */
+    public List<Object[]> findAllIdAndName(){
+        return em.createQuery("select m.id, m.name from Member m", Object[].class)
+                .getResultList();
+    }
+
     public List<Member> findByName(String name){
         return em.createQuery("select m from Member m where m.name=:name", Member.class)
                 .setParameter("name", name)
@@ -0,0 +1,38 @@
+package com.jpabook.jpashop.repository;
+
+import com.jpabook.jpashop.domain.OrderCancelJob;
+import com.jpabook.jpashop.domain.OrderCancelJobStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderCancelJobRepository {
+    private final EntityManager em;
+
+    public void save(OrderCancelJob job){
+        em.persist(job);
+    }
+
+    public OrderCancelJob findOne(Long id){
+        return em.find(OrderCancelJob.class, id);
+    }
+
+    /**
+     * 최근 작업부터
+     */
+    public List<OrderCancelJob> findAll(int limit){
+        return em.createQuery("select j from OrderCancelJob j order by j.id desc", OrderCancelJob.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public List<Long> findIdsByStatus(List<OrderCancelJobStatus> statuses){
+        return em.createQuery("select j.id from OrderCancelJob j where j.status in :statuses order by j.id", Long.class)
+                .setParameter("statuses", statuses)
+                .getResultList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.jpabook.jpashop.repository;
+
+import java.util.Collection;
+
+/**
+ * 주문 조회 fetch plan (Order 의 named entity graph)
+ * SUMMARY   : 회원, 배송 (주문상품은 읽지 않음)
+ * WITH_ITEMS: + 주문상품
+ * FULL      : + 주문상품의 상품
+ */
+public enum OrderFetchPlan {
+    SUMMARY("Order.summary"),
+    WITH_ITEMS("Order.withItems"),
+    FULL("Order.full");
+
+    private final String graphName;
+
+    OrderFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    public boolean fetchesOrderItems() {
+        return this != SUMMARY;
+    }
+
+    /**
+     * 응답 필드에 필요한 최소 plan
+     * orderItems.itemName(또는 orderItems 전체)은 상품까지, 나머지 orderItems.* 는 주문상품까지 필요하다.
+     */
+    public static OrderFetchPlan forFields(Collection<String> fields) {
+        OrderFetchPlan plan = SUMMARY;
+        for (String field : fields) {
+            if (field.equals("orderItems") || field.equals("orderItems.itemName")) {
+                return FULL;
+            }
+            if (field.startsWith("orderItems.")) {
+                plan = WITH_ITEMS;
+            }
+        }
+        return plan;
+    }
+
+    public OrderFetchPlan atLeast(OrderFetchPlan other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+}
@@ -3,15 +3,22 @@ package com.jpabook.jpashop.repository;
 import com.jpabook.jpashop.domain.Member;
 import com.jpabook.jpashop.domain.Order;
 import com.jpabook.jpashop.domain.OrderSearch;
+import com.jpabook.jpashop.domain.OrderStatus;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Repository
 @RequiredArgsConstructor
@@ -26,6 +33,13 @@ public class OrderRepository {
         return em.find(Order.class, id);
     }
 
+    /**
+     * 쓰기 잠금으로 조회 (주문 취소가 대량 취소 작업과 같은 주문을 동시에 바꾸지 않도록)
+     */
+    public Order findOneForUpdate(Long id){
+        return em.find(Order.class, id, LockModeType.PESSIMISTIC_WRITE);
+    }
+
     public List<Order> findAll(OrderSearch orderSearch){
         return em.createQuery("select o from Order o join o.member m" +
                 " where o.status = :status"+
@@ -36,6 +50,15 @@ public class OrderRepository {
                 .getResultList();
     }
 
+    /**
+     * 동적 검색 (주문상태, 회원이름, 주문일 기간, 배송상태)
+     * 조건 조합별 JPQL을 미리 만들어 둔 OrderSearchQuery를 사용한다. 최대 1000건
+     */
+    public List<Order> findAllBySearch(OrderSearch orderSearch){
+        return OrderSearchQuery.create(em, orderSearch, 1000)
+                .getResultList();
+    }
+
     // 동적쿼리 예제(실무에서 사용 안함, 버그 발생 가능성 높음)
     public List<Order> findAllByString(OrderSearch orderSearch) {
 
@@ -123,6 +146,59 @@ public class OrderRepository {
                 .getResultList();
     }
 
+    /**
+     * 컬렉션 페치 조인 페이징 1단계: 검색 조건에 맞는 주문 id 한 페이지 (주문일 최신순, 같으면 id 역순)
+     * 조인 없이 주문 id만 DB에서 페이징하므로 결과 크기가 limit 으로 제한된다.
+     */
+    public List<Long> findIdsBySearch(OrderSearch orderSearch, int offset, int limit) {
+        return OrderSearchQuery.createIds(em, orderSearch, offset, limit)
+                .getResultList();
+    }
+
+    public long countBySearch(OrderSearch orderSearch) {
+        return OrderSearchQuery.createCount(em, orderSearch)
+                .getSingleResult();
+    }
+
+    /**
+     * 같은 결과가 나오는 검색 조건이면 같은 키 (count 결과 캐시용)
+     */
+    public String searchKey(OrderSearch orderSearch) {
+        return OrderSearchQuery.key(orderSearch);
+    }
+
+    /**
+     * 컬렉션 페치 조인 페이징 2단계: 1단계에서 고른 주문만 회원, 배송, 주문상품, 상품까지 한 번에 조회
+     * id 조건으로 대상 주문을 제한했으므로 메모리 페이징 없이 페치 조인할 수 있다. 결과는 orderIds 순서를 따른다.
+     * 1단계 id 조회와 count 에는 주문상품이 없는 주문도 포함되므로 주문상품, 상품은 left join 한다.
+     */
+    public List<Order> findAllWithItem(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Order> orders = em.createQuery(
+                "select distinct o from Order o" +
+                        " join fetch o.member m" +
+                        " join fetch o.delivery d" +
+                        " left join fetch o.orderItems oi" +
+                        " left join fetch oi.item i" +
+                        " where o.id in :orderIds", Order.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+        Map<Long, Order> byId = new HashMap<>(orders.size() * 2);
+        for (Order order : orders) {
+            byId.put(order.getId(), order);
+        }
+        List<Order> result = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            Order order = byId.get(orderId);
+            if (order != null) { // 두 조회 사이에 삭제된 주문
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
     public List<Order> findAllWithMemberDelivery(int offset, int limit) {
         return em.createQuery("select  o from Order o"+
                 " join fetch o.member m"+
@@ -132,6 +208,150 @@ public class OrderRepository {
                 .getResultList();
     }
 
+    /**
+     * 키셋(seek) 페이징
+     * offset 방식은 앞의 row를 모두 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다.
+     * 마지막으로 조회한 order_id 다음부터 PK 인덱스로 바로 찾아가므로 페이지 깊이와 상관없이 비용이 같다.
+     * @param lastOrderId 이전 페이지의 마지막 주문 id (첫 페이지는 null)
+     * @param limit
+     */
+    public List<Order> findAllWithMemberDeliveryAfter(Long lastOrderId, int limit) {
+        return em.createQuery("select o from Order o" +
+                " join fetch o.member m" +
+                " join fetch o.delivery d" +
+                " where o.id > :lastOrderId" +
+                " order by o.id", Order.class)
+                .setParameter("lastOrderId", lastOrderId == null ? 0L : lastOrderId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * fetch plan(named entity graph)으로 주문 페이징 조회
+     * 컬렉션(주문상품)을 함께 가져오는 plan 은 조인 결과를 그대로 페이징하면 메모리에서 페이징되므로
+     * 주문 id를 먼저 페이징한 뒤 해당 주문만 그래프로 조회한다.
+     */
+    public List<Order> findAll(OrderFetchPlan plan, int offset, int limit) {
+        if (!plan.fetchesOrderItems()) {
+            return em.createQuery("select o from Order o order by o.id", Order.class)
+                    .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, em.getEntityGraph(plan.getGraphName()))
+                    .setFirstResult(offset)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        List<Long> orderIds = em.createQuery("select o.id from Order o order by o.id", Long.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (orderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.createQuery("select distinct o from Order o where o.id in :orderIds order by o.id", Order.class)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, em.getEntityGraph(plan.getGraphName()))
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    /**
+     * 회원 id 목록으로 주문 검색 (o.member.id in, orders(member_id) 인덱스 사용)
+     * 회원 id가 많으면 InQueryChunks로 나눠서 조회하고 limit 건이 차면 멈춘다.
+     * @param memberIds
+     * @param status null이면 전체 상태
+     * @param limit
+     */
+    public List<Order> findAllByMemberIds(List<Long> memberIds, OrderStatus status, int limit) {
+        List<Order> result = new ArrayList<>();
+        for (List<Long> chunk : InQueryChunks.split(memberIds)) {
+            String jpql = "select o from Order o" +
+                    " join fetch o.member m" +
+                    " join fetch o.delivery d" +
+                    " where o.member.id in :memberIds";
+            if (status != null) {
+                jpql += " and o.status = :status";
+            }
+            TypedQuery<Order> query = em.createQuery(jpql + " order by o.id", Order.class)
+                    .setParameter("memberIds", chunk)
+                    .setMaxResults(limit - result.size());
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            result.addAll(query.getResultList());
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 대량 취소 대상 주문 id (ORDER 상태, 주문 id 순서)
+     * afterOrderId 다음부터 limit 건. 조건이 null 이면 무시한다.
+     */
+    public List<Long> findCancelTargetIds(Long memberId, LocalDateTime orderDateFrom, LocalDateTime orderDateTo,
+                                          Long afterOrderId, int limit) {
+        return cancelTargetQuery("select o.id", memberId, orderDateFrom, orderDateTo, afterOrderId, Long.class,
+                " order by o.id")
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public long countCancelTargets(Long memberId, LocalDateTime orderDateFrom, LocalDateTime orderDateTo) {
+        return cancelTargetQuery("select count(o)", memberId, orderDateFrom, orderDateTo, null, Long.class, "")
+                .getSingleResult();
+    }
+
+    private <T> TypedQuery<T> cancelTargetQuery(String select, Long memberId, LocalDateTime orderDateFrom,
+                                                LocalDateTime orderDateTo, Long afterOrderId, Class<T> type,
+                                                String orderBy) {
+        String jpql = select + " from Order o where o.status = :status";
+        if (afterOrderId != null) jpql += " and o.id > :afterOrderId";
+        if (memberId != null) jpql += " and o.member.id = :memberId";
+        if (orderDateFrom != null) jpql += " and o.orderDate >= :orderDateFrom";
+        if (orderDateTo != null) jpql += " and o.orderDate < :orderDateTo";
+        TypedQuery<T> query = em.createQuery(jpql + orderBy, type)
+                .setParameter("status", OrderStatus.ORDER);
+        if (afterOrderId != null) query.setParameter("afterOrderId", afterOrderId);
+        if (memberId != null) query.setParameter("memberId", memberId);
+        if (orderDateFrom != null) query.setParameter("orderDateFrom", orderDateFrom);
+        if (orderDateTo != null) query.setParameter("orderDateTo", orderDateTo);
+        return query;
+    }
+
+    /**
+     * 주문 + 배송을 쓰기 잠금으로 조회 (대량 취소 시 동시에 같은 주문이 바뀌지 않도록)
+     */
+    public List<Order> findAllWithDeliveryForUpdate(List<Long> orderIds) {
+        List<Order> result = new ArrayList<>(orderIds.size());
+        for (List<Long> chunk : InQueryChunks.split(orderIds)) {
+            result.addAll(em.createQuery("select o from Order o" +
+                            " join fetch o.delivery d" +
+                            " where o.id in :orderIds" +
+                            " order by o.id", Order.class)
+                    .setParameter("orderIds", chunk)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    /**
+     * 주문들의 상품별 주문 수량 합계 (itemId -> 수량)
+     */
+    public Map<Long, Integer> sumCountByItem(List<Long> orderIds) {
+        Map<Long, Integer> result = new TreeMap<>(); // 상품 id 순서로 재고를 갱신해서 교착 상태를 피한다.
+        for (List<Long> chunk : InQueryChunks.split(orderIds)) {
+            List<Object[]> rows = em.createQuery("select oi.item.id, sum(oi.count) from OrderItem oi" +
+                            " where oi.order.id in :orderIds" +
+                            " group by oi.item.id", Object[].class)
+                    .setParameter("orderIds", chunk)
+                    .getResultList();
+            for (Object[] row : rows) {
+                result.merge((Long) row[0], ((Number) row[1]).intValue(), Integer::sum);
+            }
+        }
+        return result;
+    }
+
     /**
      * 일반적인 SQL을 사용할 때 처럼 원하는 값을 선택해서 조회
      * new 명령어를 사용해서 JPQL의 결과를 DTO로 즉시 변환
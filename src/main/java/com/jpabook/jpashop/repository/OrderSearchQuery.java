@@ -0,0 +1,158 @@
+package com.jpabook.jpashop.repository;
+
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderSearch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.util.StringUtils;
+
+/**
+ * OrderSearch 동적 쿼리
+ *
+ * 검색 조건 5개(주문상태, 회원이름, 주문일 시작/끝, 배송상태)의 조합 32가지마다 JPQL을 클래스 로딩 시점에 한 번만 만든다.
+ * 같은 조건 조합은 항상 같은 JPQL 문자열이 되므로 하이버네이트 쿼리 해석 캐시(JPQL 파싱, SQL 변환 결과)를 그대로 재사용하고
+ * 요청마다 문자열 조립이나 Criteria 트리 생성/변환 없이 파라미터만 바인딩한다.
+ * 회원이름은 전방 일치(name%)로 검색해서 회원 이름 인덱스를 사용한다. 입력한 %, _ 는 와일드카드가 아니라 문자로 검색한다.
+ *
+ * 조합마다 세 가지 쿼리가 있다.
+ * - 주문 엔티티 (회원, 배송 페치 조인)
+ * - 주문 id (페이징 1단계, 조건에 필요한 조인만)
+ * - 건수 (조건에 필요한 조인만)
+ */
+final class OrderSearchQuery {
+
+    static final int STATUS = 1;
+    static final int MEMBER_NAME = 1 << 1;
+    static final int ORDER_DATE_FROM = 1 << 2;
+    static final int ORDER_DATE_TO = 1 << 3;
+    static final int DELIVERY_STATUS = 1 << 4;
+
+    private static final String ORDER_BY = " order by o.orderDate desc, o.id desc";
+
+    private static final String[] JPQL = new String[1 << 5];
+    private static final String[] ID_JPQL = new String[1 << 5];
+    private static final String[] COUNT_JPQL = new String[1 << 5];
+
+    static {
+        for (int shape = 0; shape < JPQL.length; shape++) {
+            String where = where(shape);
+            JPQL[shape] = "select o from Order o join fetch o.member m join fetch o.delivery d" + where + ORDER_BY;
+            ID_JPQL[shape] = "select o.id from Order o" + joins(shape) + where + ORDER_BY;
+            COUNT_JPQL[shape] = "select count(o) from Order o" + joins(shape) + where;
+        }
+    }
+
+    private OrderSearchQuery() {
+    }
+
+    static TypedQuery<Order> create(EntityManager em, OrderSearch orderSearch, int limit) {
+        int shape = shape(orderSearch);
+        return bind(em.createQuery(JPQL[shape], Order.class), orderSearch, shape)
+                .setMaxResults(limit);
+    }
+
+    static TypedQuery<Long> createIds(EntityManager em, OrderSearch orderSearch, int offset, int limit) {
+        int shape = shape(orderSearch);
+        return bind(em.createQuery(ID_JPQL[shape], Long.class), orderSearch, shape)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+    }
+
+    static TypedQuery<Long> createCount(EntityManager em, OrderSearch orderSearch) {
+        int shape = shape(orderSearch);
+        return bind(em.createQuery(COUNT_JPQL[shape], Long.class), orderSearch, shape);
+    }
+
+    /**
+     * 같은 결과가 나오는 검색 조건끼리 같은 값 (건수 캐시 키)
+     */
+    static String key(OrderSearch orderSearch) {
+        int shape = shape(orderSearch);
+        StringBuilder key = new StringBuilder().append(shape);
+        if ((shape & STATUS) != 0) key.append('|').append(orderSearch.getOrderStatus());
+        if ((shape & MEMBER_NAME) != 0) key.append('|').append(orderSearch.getMemberName());
+        if ((shape & ORDER_DATE_FROM) != 0) key.append('|').append(orderSearch.getOrderDateFrom());
+        if ((shape & ORDER_DATE_TO) != 0) key.append('|').append(orderSearch.getOrderDateTo());
+        if ((shape & DELIVERY_STATUS) != 0) key.append('|').append(orderSearch.getDeliveryStatus());
+        return key.toString();
+    }
+
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, OrderSearch orderSearch, int shape) {
+        if ((shape & STATUS) != 0) {
+            query.setParameter("status", orderSearch.getOrderStatus());
+        }
+        if ((shape & MEMBER_NAME) != 0) {
+            query.setParameter("memberName", escapeLike(orderSearch.getMemberName()) + "%");
+        }
+        if ((shape & ORDER_DATE_FROM) != 0) {
+            query.setParameter("orderDateFrom", orderSearch.getOrderDateFrom());
+        }
+        if ((shape & ORDER_DATE_TO) != 0) {
+            query.setParameter("orderDateTo", orderSearch.getOrderDateTo());
+        }
+        if ((shape & DELIVERY_STATUS) != 0) {
+            query.setParameter("deliveryStatus", orderSearch.getDeliveryStatus());
+        }
+        return query;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    static int shape(OrderSearch orderSearch) {
+        int shape = 0;
+        if (orderSearch.getOrderStatus() != null) {
+            shape |= STATUS;
+        }
+        if (StringUtils.hasText(orderSearch.getMemberName())) {
+            shape |= MEMBER_NAME;
+        }
+        if (orderSearch.getOrderDateFrom() != null) {
+            shape |= ORDER_DATE_FROM;
+        }
+        if (orderSearch.getOrderDateTo() != null) {
+            shape |= ORDER_DATE_TO;
+        }
+        if (orderSearch.getDeliveryStatus() != null) {
+            shape |= DELIVERY_STATUS;
+        }
+        return shape;
+    }
+
+    private static String joins(int shape) {
+        String joins = "";
+        if ((shape & MEMBER_NAME) != 0) {
+            joins += " join o.member m";
+        }
+        if ((shape & DELIVERY_STATUS) != 0) {
+            joins += " join o.delivery d";
+        }
+        return joins;
+    }
+
+    private static String where(int shape) {
+        StringBuilder jpql = new StringBuilder();
+        String prefix = " where ";
+        if ((shape & STATUS) != 0) {
+            jpql.append(prefix).append("o.status = :status");
+            prefix = " and ";
+        }
+        if ((shape & MEMBER_NAME) != 0) {
+            jpql.append(prefix).append("m.name like :memberName escape '\\'");
+            prefix = " and ";
+        }
+        if ((shape & ORDER_DATE_FROM) != 0) {
+            jpql.append(prefix).append("o.orderDate >= :orderDateFrom");
+            prefix = " and ";
+        }
+        if ((shape & ORDER_DATE_TO) != 0) {
+            jpql.append(prefix).append("o.orderDate < :orderDateTo");
+            prefix = " and ";
+        }
+        if ((shape & DELIVERY_STATUS) != 0) {
+            jpql.append(prefix).append("d.status = :deliveryStatus");
+        }
+        return jpql.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.jpabook.jpashop.repository;
+
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.domain.OrderSummary;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderSummaryRepository {
+
+    /**
+     * 주문, 회원, 배송, 주문상품으로 order_summary 를 다시 계산하는 SQL
+     * 일치 여부 확인용이라 주문 총액도 orders.total_price 가 아니라 주문상품에서 다시 계산한다.
+     */
+    private static final String RECOMPUTED_SQL = "select o.order_id, m.member_id, m.name as member_name, o.order_date, o.status," +
+            " d.city, d.street, d.zipcode," +
+            " coalesce(sum(oi.order_price * oi.count), 0) as total_price, count(oi.order_item_id) as line_count" +
+            " from orders o" +
+            " join member m on m.member_id = o.member_id" +
+            " join delivery d on d.delivery_id = o.delivery_id" +
+            " left join order_item oi on oi.order_id = o.order_id" +
+            " group by o.order_id, m.member_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode";
+
+    private static final String INCONSISTENT_WHERE = " from (" + RECOMPUTED_SQL + ") r" +
+            " left join order_summary s on s.order_id = r.order_id" +
+            " where s.order_id is null" +
+            " or s.member_id is distinct from r.member_id" +
+            " or s.member_name is distinct from r.member_name" +
+            " or s.order_date is distinct from r.order_date" +
+            " or s.status is distinct from r.status" +
+            " or s.city is distinct from r.city" +
+            " or s.street is distinct from r.street" +
+            " or s.zipcode is distinct from r.zipcode" +
+            " or s.total_price <> r.total_price" +
+            " or s.line_count <> r.line_count";
+
+    private final EntityManager em;
+
+    public void save(OrderSummary orderSummary){
+        em.persist(orderSummary);
+    }
+
+    public OrderSummary findOne(Long orderId){
+        return em.find(OrderSummary.class, orderId);
+    }
+
+    public List<OrderSummary> findAll(int offset, int limit){
+        return em.createQuery("select s from OrderSummary s order by s.orderId", OrderSummary.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public int updateMemberName(Long memberId, String memberName){
+        return em.createQuery("update OrderSummary s set s.memberName = :memberName where s.memberId = :memberId")
+                .setParameter("memberName", memberName)
+                .setParameter("memberId", memberId)
+                .executeUpdate();
+    }
+
+    /**
+     * 여러 주문 요약을 한 번에 취소 상태로 변경
+     */
+    public int cancelAll(List<Long> orderIds){
+        int updated = 0;
+        for (List<Long> chunk : InQueryChunks.split(orderIds)) {
+            updated += em.createQuery("update OrderSummary s set s.status = :status where s.orderId in :orderIds")
+                    .setParameter("status", OrderStatus.CANCEL)
+                    .setParameter("orderIds", chunk)
+                    .executeUpdate();
+        }
+        return updated;
+    }
+
+    /**
+     * 전체 재생성 (delete 후 insert ... select 한 번)
+     * 주문 총액/주문상품 수는 orders 컬럼을 그대로 쓰므로 주문상품은 조인하지 않는다.
+     * @return 생성한 row 수
+     */
+    public int rebuild(){
+        em.flush();
+        em.createNativeQuery("delete from order_summary").executeUpdate();
+        int inserted = em.createNativeQuery("insert into order_summary" +
+                        " (order_id, member_id, member_name, order_date, status, city, street, zipcode, total_price, line_count)" +
+                        " select o.order_id, m.member_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode," +
+                        " o.total_price, o.line_count" +
+                        " from orders o" +
+                        " join member m on m.member_id = o.member_id" +
+                        " join delivery d on d.delivery_id = o.delivery_id")
+                .executeUpdate();
+        em.clear();
+        return inserted;
+    }
+
+    public long countOrders(){
+        return ((Number) em.createNativeQuery("select count(*) from orders").getSingleResult()).longValue();
+    }
+
+    public long countSummaries(){
+        return ((Number) em.createNativeQuery("select count(*) from order_summary").getSingleResult()).longValue();
+    }
+
+    /**
+     * 주문은 있는데 요약이 없거나 값이 다른 주문 수
+     */
+    public long countInconsistent(){
+        return ((Number) em.createNativeQuery("select count(*)" + INCONSISTENT_WHERE).getSingleResult()).longValue();
+    }
+
+    /**
+     * 주문이 없어진 요약 수
+     */
+    public long countOrphaned(){
+        return ((Number) em.createNativeQuery("select count(*) from order_summary s" +
+                " where not exists (select 1 from orders o where o.order_id = s.order_id)").getSingleResult()).longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Long> findInconsistentOrderIds(int limit){
+        List<Number> ids = em.createNativeQuery("select r.order_id" + INCONSISTENT_WHERE + " order by r.order_id")
+                .setMaxResults(limit)
+                .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.jpabook.jpashop.repository.order.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 플랫 조회 결과(OrderFlatDto)를 주문 단위(OrderQueryDto)로 모은다.
+ * o.id 로 정렬된 row가 들어온다고 가정하고 연속된 같은 주문의 row만 합친다.
+ * groupingBy 처럼 중간 Map이나 row마다 key 객체를 만들지 않고 한 번에 처리하며, 조회 순서가 그대로 유지된다.
+ */
+public class OrderFlatAssembler implements Consumer<OrderFlatDto> {
+
+    private final Consumer<OrderQueryDto> downstream;
+    private OrderQueryDto current;
+
+    public OrderFlatAssembler(Consumer<OrderQueryDto> downstream) {
+        this.downstream = downstream;
+    }
+
+    public static List<OrderQueryDto> assemble(List<OrderFlatDto> flats) {
+        List<OrderQueryDto> result = new ArrayList<>();
+        OrderFlatAssembler assembler = new OrderFlatAssembler(result::add);
+        flats.forEach(assembler);
+        assembler.finish();
+        return result;
+    }
+
+    @Override
+    public void accept(OrderFlatDto row) {
+        if (current == null || !current.getOrderId().equals(row.getOrderId())) {
+            finish();
+            current = new OrderQueryDto(row.getOrderId(), row.getName(), row.getOrderDate(),
+                    row.getOrderStatus(), row.getAddress(), new ArrayList<>());
+        }
+        if (row.getCount() != null) { // 주문상품이 없는 주문은 빈 목록
+            current.getOrderItems().add(new OrderItemQueryDto(row.getOrderId(),
+                    row.getItemName(), row.getOrderPrice(), row.getCount()));
+        }
+    }
+
+    /**
+     * 마지막으로 모으던 주문을 내보낸다. row를 모두 넘긴 뒤 반드시 호출해야 한다.
+     */
+    public void finish() {
+        if (current != null) {
+            downstream.accept(current);
+            current = null;
+        }
+    }
+}
@@ -15,11 +15,12 @@ public class OrderFlatDto {
     private OrderStatus orderStatus;
     private Address address;
 
+    // 주문상품이 없는 주문이면 셋 다 null
     private String itemName;
-    private int orderPrice;
-    private int count;
+    private Integer orderPrice;
+    private Integer count;
 
-    public OrderFlatDto(Long orderId, String name, LocalDateTime orderDate, OrderStatus orderStatus, Address address, String itemName, int orderPrice, int count) {
+    public OrderFlatDto(Long orderId, String name, LocalDateTime orderDate, OrderStatus orderStatus, Address address, String itemName, Integer orderPrice, Integer count) {
         this.orderId = orderId;
         this.name = name;
         this.orderDate = orderDate;
@@ -0,0 +1,139 @@
+package com.jpabook.jpashop.repository.order.query;
+
+import com.jpabook.jpashop.repository.InQueryChunks;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * V4 주문 조회(OrderQueryDto)를 병렬로 조립
+ *
+ * 주문 id 구간을 parallelism 개로 나누고, 구간마다 주문 조회와 주문상품 조회를 각각 별도 작업으로 동시에 실행한다.
+ * - 작업마다 readOnly 트랜잭션(= 별도 커넥션, 복제본 라우팅 대상)을 연다.
+ * - 전용 쓰레드 풀 크기가 parallelism 으로 고정이라 풀 쓰레드가 쓰는 커넥션은 동시 요청이 많아도 parallelism 개를 넘지 않는다.
+ * - 작업마다 커넥션이 달라서 구간끼리는 같은 스냅샷을 보장하지 않는다.
+ * - 주문상품은 같은 구간의 주문 조회가 끝난 뒤 그 결과의 주문 id 로 조회한다.
+ *   구간(between)으로 따로 조회하면 두 조회 사이에 커밋된 주문의 주문상품만 조회될 수 있기 때문이다.
+ * - 큐가 가득 차면 작업을 호출한 쓰레드에서 바로 실행한다. 이때는 요청 쓰레드도 커넥션을 하나 쓰므로
+ *   이 조회의 커넥션은 최대 parallelism + 동시에 조회 중인 요청 수 까지 늘어난다.
+ */
+@Repository
+public class OrderParallelQueryRepository {
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int parallelism;
+    private final ThreadPoolExecutor executor;
+
+    public OrderParallelQueryRepository(EntityManager em,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${jpashop.order-query.parallelism:4}") int parallelism) {
+        this.em = em;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.parallelism = parallelism;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), r -> {
+            Thread thread = new Thread(r, "order-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (task, pool) -> task.run());
+    }
+
+    public List<OrderQueryDto> findOrderQueryDtos() {
+        Object[] range = readOnlyTransaction.execute(status -> em.createQuery(
+                "select min(o.id), max(o.id) from Order o", Object[].class).getSingleResult());
+        if (range == null || range[0] == null) {
+            return new ArrayList<>();
+        }
+        long minId = (Long) range[0];
+        long maxId = (Long) range[1];
+        long step = Math.max(1, (maxId - minId + parallelism) / parallelism);
+
+        List<CompletableFuture<List<OrderQueryDto>>> futures = new ArrayList<>();
+        for (long start = minId; start <= maxId; start += step) {
+            long from = start;
+            long to = Math.min(start + step - 1, maxId);
+            futures.add(CompletableFuture.supplyAsync(() -> inReadOnly(() -> findOrders(from, to)), executor)
+                    .thenApplyAsync(orders -> inReadOnly(() -> withOrderItems(orders)), executor));
+        }
+
+        List<OrderQueryDto> result = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<OrderQueryDto>> future : futures) {
+                result.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(false));
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+        return result;
+    }
+
+    private <T> T inReadOnly(Supplier<T> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    private List<OrderQueryDto> withOrderItems(List<OrderQueryDto> orders) {
+        Map<Long, OrderQueryDto> orderMap = toOrderMap(orders);
+        for (List<Long> chunk : InQueryChunks.split(new ArrayList<>(orderMap.keySet()))) {
+            findOrderItems(chunk).forEach(oi -> orderMap.get(oi.getOrderId()).getOrderItems().add(oi));
+        }
+        return orders;
+    }
+
+    private List<OrderQueryDto> findOrders(long fromId, long toId) {
+        return em.createQuery(
+                "select new com.jpabook.jpashop.repository.order.query.OrderQueryDto(o.id, m.name, o.orderDate, o.status, d.address)" +
+                        " from Order o" +
+                        " join o.member m" +
+                        " join o.delivery d" +
+                        " where o.id between :fromId and :toId", OrderQueryDto.class)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .getResultList();
+    }
+
+    private List<OrderItemQueryDto> findOrderItems(List<Long> orderIds) {
+        return em.createQuery(
+                "select new com.jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
+                        " from OrderItem oi" +
+                        " join oi.item i" +
+                        " where oi.order.id in :orderIds", OrderItemQueryDto.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    private static Map<Long, OrderQueryDto> toOrderMap(List<OrderQueryDto> orders) {
+        Map<Long, OrderQueryDto> orderMap = new HashMap<>((int) (orders.size() / 0.75f) + 1);
+        for (OrderQueryDto order : orders) {
+            order.setOrderItems(new ArrayList<>());
+            orderMap.put(order.getOrderId(), order);
+        }
+        return orderMap;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
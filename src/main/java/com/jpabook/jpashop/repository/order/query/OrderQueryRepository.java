@@ -1,16 +1,33 @@
 package com.jpabook.jpashop.repository.order.query;
 
+import com.jpabook.jpashop.repository.InQueryChunks;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderQueryRepository {
+    // 주문상품이 없는 주문도 빠지지 않도록 주문상품, 상품은 left join (주문상품 컬럼이 null 인 row 하나로 나온다)
+    private static final String FLAT_QUERY = "select new " +
+            " com.jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
+            " from Order o"+
+            " join o.member m"+
+            " join o.delivery d"+
+            " left join o.orderItems oi" +
+            " left join oi.item i";
+
     private final EntityManager em;
 
     public List<OrderQueryDto> findOrderQueryDtos(){
@@ -40,39 +57,82 @@ public class OrderQueryRepository {
                 .getResultList();
     }
 
+    /**
+     * 주문상품은 IN 쿼리로 한 번에 조회 (1+1)
+     * 주문 id가 많으면 InQueryChunks로 고정 크기 청크로 나눠서 조회한다.
+     * 주문상품을 주문 id별 List로 다시 묶지 않고, id로 찾은 주문 DTO에 바로 붙인다.
+     */
     public List<OrderQueryDto> findAllDto_optimization() {
         List<OrderQueryDto> result = findOrders();
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = findOrderItemMap(toOrderIds(result));
-        result.forEach(o->o.setOrderItems(orderItemMap.get(o.getOrderId())));
+        Map<Long, OrderQueryDto> orderMap = toOrderMap(result);
+        for (List<Long> orderIds : InQueryChunks.split(new ArrayList<>(orderMap.keySet()))) {
+            findOrderItems(orderIds)
+                    .forEach(oi -> orderMap.get(oi.getOrderId()).getOrderItems().add(oi));
+        }
         return result;
     }
 
-    private static List<Long> toOrderIds(List<OrderQueryDto> result) {
-        return result.stream().map(o -> o.getOrderId()).collect(Collectors.toList());
+    private static Map<Long, OrderQueryDto> toOrderMap(List<OrderQueryDto> result) {
+        Map<Long, OrderQueryDto> orderMap = new HashMap<>((int) (result.size() / 0.75f) + 1);
+        for (OrderQueryDto order : result) {
+            order.setOrderItems(new ArrayList<>());
+            orderMap.put(order.getOrderId(), order);
+        }
+        return orderMap;
     }
 
-    private Map<Long, List<OrderItemQueryDto>> findOrderItemMap(List<Long> orderIds) {
-        List<OrderItemQueryDto> orderItems = em.createQuery(
+    private List<OrderItemQueryDto> findOrderItems(List<Long> orderIds) {
+        return em.createQuery(
                 "select new com.jpabook.jpashop.repository.order.query.OrderItemQueryDto(oi.order.id, i.name, oi.orderPrice, oi.count)" +
                         " from OrderItem oi" +
                         " join oi.item i" +
                         " where oi.order.id in :orderIds", OrderItemQueryDto.class)
                 .setParameter("orderIds", orderIds)
                 .getResultList();
-        Map<Long, List<OrderItemQueryDto>> orderItemMap = orderItems.stream()
-                .collect(Collectors.groupingBy(orderItemQueryDto -> orderItemQueryDto.getOrderId()));
-        return orderItemMap;
     }
 
     public List<OrderFlatDto> findAllDto_flat() {
-        return em.createQuery(
-                "select new " +
-                        " com.jpabook.jpashop.repository.order.query.OrderFlatDto(o.id, m.name, o.orderDate, o.status, d.address, i.name, oi.orderPrice, oi.count)" +
-                        " from Order o"+
-                        " join o.member m"+
-                        " join o.delivery d"+
-                        " join o.orderItems oi" +
-                        " join oi.item i", OrderFlatDto.class)
+        return em.createQuery(FLAT_QUERY + " order by o.id", OrderFlatDto.class)
+                .getResultList();
+    }
+
+    /**
+     * 주문 건수 기준 페이징
+     * 플랫 조회에 바로 offset/limit을 걸면 주문이 아니라 주문상품 row 기준으로 잘린다.
+     * 먼저 주문 id를 페이징해서 가져온 뒤 해당 주문들만 플랫 조회한다.
+     */
+    public List<OrderFlatDto> findAllDto_flat(int offset, int limit) {
+        List<Long> orderIds = em.createQuery("select o.id from Order o order by o.id", Long.class)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (orderIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return em.createQuery(FLAT_QUERY + " where o.id in :orderIds order by o.id", OrderFlatDto.class)
+                .setParameter("orderIds", orderIds)
                 .getResultList();
     }
+
+    /**
+     * 전체 주문을 List로 모으지 않고 forward-only 커서로 한 row씩 넘긴다.
+     * order by o.id 로 같은 주문의 row가 연속으로 나오므로 호출하는 쪽에서 한 번에 하나의 주문만 들고 있으면 된다.
+     * fetchSize 마다 영속성 컨텍스트를 비워서 조회 건수와 상관없이 힙 사용량이 일정하게 유지된다.
+     * 트랜잭션 안에서 호출해야 한다.
+     */
+    public void scrollAllDto_flat(int fetchSize, Consumer<OrderFlatDto> consumer) {
+        Query<OrderFlatDto> query = em.unwrap(Session.class)
+                .createQuery(FLAT_QUERY + " order by o.id", OrderFlatDto.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true);
+        try (ScrollableResults<OrderFlatDto> scroll = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            int count = 0;
+            while (scroll.next()) {
+                consumer.accept(scroll.get());
+                if (++count % fetchSize == 0) {
+                    em.clear();
+                }
+            }
+        }
+    }
 }
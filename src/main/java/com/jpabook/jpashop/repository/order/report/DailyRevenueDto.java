@@ -0,0 +1,18 @@
+package com.jpabook.jpashop.repository.order.report;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class DailyRevenueDto {
+    private LocalDate orderDay;
+    private long orderCount;
+    private long revenue;
+
+    public DailyRevenueDto(LocalDate orderDay, Long orderCount, Long revenue) {
+        this.orderDay = orderDay;
+        this.orderCount = orderCount;
+        this.revenue = revenue == null ? 0 : revenue;
+    }
+}
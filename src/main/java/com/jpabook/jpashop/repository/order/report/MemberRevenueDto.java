@@ -0,0 +1,18 @@
+package com.jpabook.jpashop.repository.order.report;
+
+import lombok.Data;
+
+@Data
+public class MemberRevenueDto {
+    private Long memberId;
+    private String name;
+    private long orderCount;
+    private long revenue;
+
+    public MemberRevenueDto(Long memberId, String name, Long orderCount, Long revenue) {
+        this.memberId = memberId;
+        this.name = name;
+        this.orderCount = orderCount;
+        this.revenue = revenue == null ? 0 : revenue;
+    }
+}
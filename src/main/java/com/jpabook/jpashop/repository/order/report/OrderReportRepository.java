@@ -0,0 +1,65 @@
+package com.jpabook.jpashop.repository.order.report;
+
+import com.jpabook.jpashop.domain.OrderStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 매출 집계
+ * orders.total_price 를 sum/group by 로 DB에서 집계한다. 주문상품, 상품은 읽지 않는다.
+ * 매출은 취소되지 않은(ORDER) 주문만 포함하고, 상태별 집계는 전체 상태를 보여준다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderReportRepository {
+
+    private final EntityManager em;
+
+    /**
+     * 일별 매출 [from, to)
+     */
+    public List<DailyRevenueDto> findDailyRevenue(LocalDateTime from, LocalDateTime to) {
+        return em.createQuery(
+                "select new com.jpabook.jpashop.repository.order.report.DailyRevenueDto(cast(o.orderDate as LocalDate), count(o), sum(o.totalPrice))" +
+                        " from Order o" +
+                        " where o.status = :status" +
+                        " and o.orderDate >= :from and o.orderDate < :to" +
+                        " group by cast(o.orderDate as LocalDate)" +
+                        " order by cast(o.orderDate as LocalDate)", DailyRevenueDto.class)
+                .setParameter("status", OrderStatus.ORDER)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    /**
+     * 회원별 매출 상위 limit 명
+     */
+    public List<MemberRevenueDto> findTopMemberRevenue(int limit) {
+        return em.createQuery(
+                "select new com.jpabook.jpashop.repository.order.report.MemberRevenueDto(m.id, m.name, count(o), sum(o.totalPrice))" +
+                        " from Order o" +
+                        " join o.member m" +
+                        " where o.status = :status" +
+                        " group by m.id, m.name" +
+                        " order by sum(o.totalPrice) desc", MemberRevenueDto.class)
+                .setParameter("status", OrderStatus.ORDER)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 주문 상태별 주문 수 / 금액
+     */
+    public List<StatusRevenueDto> findRevenueByStatus() {
+        return em.createQuery(
+                "select new com.jpabook.jpashop.repository.order.report.StatusRevenueDto(o.status, count(o), sum(o.totalPrice))" +
+                        " from Order o" +
+                        " group by o.status", StatusRevenueDto.class)
+                .getResultList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.jpabook.jpashop.repository.order.report;
+
+import com.jpabook.jpashop.domain.OrderStatus;
+import lombok.Data;
+
+@Data
+public class StatusRevenueDto {
+    private OrderStatus orderStatus;
+    private long orderCount;
+    private long revenue;
+
+    public StatusRevenueDto(OrderStatus orderStatus, Long orderCount, Long revenue) {
+        this.orderStatus = orderStatus;
+        this.orderCount = orderCount;
+        this.revenue = revenue == null ? 0 : revenue;
+    }
+}
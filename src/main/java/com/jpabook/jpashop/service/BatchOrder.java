@@ -0,0 +1,23 @@
+package com.jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 대량 주문의 주문 한 건
+ */
+@Getter
+@AllArgsConstructor
+public class BatchOrder {
+    private Long memberId;
+    private List<Line> lines;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Line {
+        private Long itemId;
+        private int count;
+    }
+}
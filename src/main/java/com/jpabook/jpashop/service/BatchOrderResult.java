@@ -0,0 +1,28 @@
+package com.jpabook.jpashop.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 대량 주문의 주문별 처리 결과
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchOrderResult {
+    private int index;      // 요청 안에서의 주문 순번
+    private Long orderId;   // 성공한 경우 주문 id
+    private String error;   // 실패한 경우 사유
+
+    public static BatchOrderResult success(int index, Long orderId) {
+        return new BatchOrderResult(index, orderId, null);
+    }
+
+    public static BatchOrderResult failure(int index, String error) {
+        return new BatchOrderResult(index, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
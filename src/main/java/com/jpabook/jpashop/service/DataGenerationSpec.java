@@ -0,0 +1,30 @@
+package com.jpabook.jpashop.service;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 대량 데이터 생성 조건 (jpashop.datagen.*)
+ * 같은 seed 면 쓰레드 수와 상관없이 같은 데이터가 만들어진다.
+ */
+@Getter @Setter
+public class DataGenerationSpec {
+    private boolean onStartup;      // 애플리케이션 시작 시 생성
+    private int members = 10_000;
+    private int items = 1_000;
+    private int orders = 1_000_000;
+    private int maxItemsPerOrder = 3;
+    private long seed = 42L;
+    private int threads = 4;
+
+    /**
+     * 생성 도중(여러 트랜잭션에 걸쳐 일부만 저장된 상태)에 실패하지 않도록 시작 전에 확인한다.
+     */
+    public void validate() {
+        if (members < 1 || items < 1 || orders < 0 || maxItemsPerOrder < 1 || threads < 1) {
+            throw new IllegalArgumentException("members, items, maxItemsPerOrder, threads 는 1 이상, orders 는 0 이상이어야 합니다."
+                    + " members=" + members + ", items=" + items + ", orders=" + orders
+                    + ", maxItemsPerOrder=" + maxItemsPerOrder + ", threads=" + threads);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.jpabook.jpashop.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 부하 테스트용 대량 데이터 생성 (회원, 상품, 주문, 배송, 주문상품)
+ *
+ * JPA 엔티티를 하나씩 persist 하지 않고 JDBC batch insert 로 바로 넣는다.
+ * - 주문은 BLOCK_SIZE 단위 블록으로 나눠서 여러 쓰레드가 나눠 쓰고, 블록마다 한 트랜잭션으로 커밋한다.
+ * - 블록마다 seed 에서 파생된 난수를 쓰므로 쓰레드 수, 실행 순서와 상관없이 같은 seed 면 같은 데이터가 나온다.
+ * - id 는 엔티티 시퀀스에서 필요한 만큼 구간을 미리 확보해서 직접 부여한다. (생성 중에는 다른 쓰기가 없다고 가정)
+ * - 생성한 주문만큼 상품 재고를 차감하지는 않는다.
+ * - JDBC 로 바로 넣으므로 끝나면 2차 캐시/쿼리 캐시를 비우고 회원 이름 색인과 order_summary 를 다시 만든다.
+ */
+@Slf4j
+@Component
+public class DataGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int BLOCK_SIZE = 10_000;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory emf;
+    private final Environment environment;
+    private final MemberNameIndex memberNameIndex;
+    private final OrderSummaryService orderSummaryService;
+
+    public DataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         EntityManagerFactory emf, Environment environment, MemberNameIndex memberNameIndex,
+                         OrderSummaryService orderSummaryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emf = emf;
+        this.environment = environment;
+        this.memberNameIndex = memberNameIndex;
+        this.orderSummaryService = orderSummaryService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        DataGenerationSpec spec = Binder.get(environment)
+                .bind("jpashop.datagen", DataGenerationSpec.class)
+                .orElseGet(DataGenerationSpec::new);
+        if (spec.isOnStartup()) {
+            generate(spec);
+        }
+    }
+
+    public Result generate(DataGenerationSpec spec) {
+        spec.validate();
+        long start = System.currentTimeMillis();
+        int maxItemsPerOrder = spec.getMaxItemsPerOrder();
+
+        long memberBase = reserveIds("member_seq", spec.getMembers());
+        long itemBase = reserveIds("item_seq", spec.getItems());
+        long orderBase = reserveIds("orders_seq", spec.getOrders());
+        long deliveryBase = reserveIds("delivery_seq", spec.getOrders());
+        // 주문상품은 주문마다 개수가 달라서 최대치로 확보한다.
+        long orderItemBase = reserveIds("order_item_seq", (long) spec.getOrders() * maxItemsPerOrder);
+
+        SplittableRandom catalogRandom = new SplittableRandom(spec.getSeed());
+        int[] prices = new int[spec.getItems()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 1_000 * (1 + catalogRandom.nextInt(50));
+        }
+        insertMembers(memberBase, spec.getMembers());
+        insertItems(itemBase, prices, catalogRandom);
+
+        AtomicLong orderItemCount = new AtomicLong();
+        int blocks = (spec.getOrders() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(spec.getThreads());
+        try {
+            List<Future<?>> futures = new ArrayList<>(blocks);
+            for (int block = 0; block < blocks; block++) {
+                OrderBlock orderBlock = new OrderBlock(spec, block, memberBase, itemBase, orderBase, deliveryBase,
+                        orderItemBase, maxItemsPerOrder, prices);
+                futures.add(executor.submit(() -> orderItemCount.addAndGet(insertOrders(orderBlock))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("대량 데이터 생성 실패", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        emf.getCache().evictAll();
+        emf.unwrap(SessionFactoryImplementor.class).getCache().evictQueryRegions();
+        memberNameIndex.reindexAll();
+        orderSummaryService.rebuild();
+
+        Result result = new Result(spec.getMembers(), spec.getItems(), spec.getOrders(), orderItemCount.get(),
+                System.currentTimeMillis() - start);
+        log.info("대량 데이터 생성 완료: {}", result);
+        return result;
+    }
+
+    /**
+     * 시퀀스에서 count 개의 id 구간을 확보하고 시작 id 를 돌려준다.
+     * pooled-lo 옵티마이저는 시퀀스 값 v 를 받으면 [v, v + allocationSize) 를 쓰므로
+     * 현재 값을 하나 받은 뒤 확보한 구간 뒤로 시퀀스를 옮겨 두면 이후 JPA 저장과 id 가 겹치지 않는다.
+     */
+    private long reserveIds(String sequenceName, long count) {
+        Dialect dialect = emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        Long base = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequenceName), Long.class);
+        jdbcTemplate.execute("alter sequence " + sequenceName + " restart with " + (base + count + 1));
+        return base;
+    }
+
+    private void insertMembers(long memberBase, int members) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < members; i++) {
+            long id = memberBase + i;
+            rows.add(new Object[]{id, "user" + id, "city" + (i % 100), "street" + i, String.format("%05d", i % 100_000)});
+            if (rows.size() == BATCH_SIZE || i == members - 1) {
+                batchInsert("insert into member (member_id, name, city, street, zipcode) values (?, ?, ?, ?, ?)", rows);
+            }
+        }
+    }
+
+    private void insertItems(long itemBase, int[] prices, SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < prices.length; i++) {
+            long id = itemBase + i;
+            rows.add(new Object[]{id, "book" + id, prices[i], 1_000_000 + random.nextInt(1_000_000)});
+            if (rows.size() == BATCH_SIZE || i == prices.length - 1) {
+                batchInsert("insert into item (dtype, item_id, name, price, stock_quantity) values ('B', ?, ?, ?, ?)", rows);
+            }
+        }
+    }
+
+    /**
+     * 주문 블록 하나를 BATCH_SIZE 주문 단위 트랜잭션으로 저장
+     * @return 저장한 주문상품 수
+     */
+    private long insertOrders(OrderBlock block) {
+        SplittableRandom random = new SplittableRandom(block.spec.getSeed() + MIX * (block.index + 1));
+        LocalDateTime now = LocalDateTime.now();
+        int from = block.index * BLOCK_SIZE;
+        int to = Math.min(from + BLOCK_SIZE, block.spec.getOrders());
+        long orderItemCount = 0;
+
+        List<Object[]> deliveries = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> orders = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> orderItems = new ArrayList<>(BATCH_SIZE * block.maxItemsPerOrder);
+        for (int i = from; i < to; i++) {
+            long orderId = block.orderBase + i;
+            long deliveryId = block.deliveryBase + i;
+            int member = random.nextInt(block.spec.getMembers());
+            String status = random.nextInt(10) == 0 ? "CANCEL" : "ORDER";
+            Timestamp orderDate = Timestamp.valueOf(now.minusSeconds(random.nextInt(365 * 24 * 60 * 60)));
+
+            deliveries.add(new Object[]{deliveryId, "READY", "city" + (member % 100), "street" + member,
+                    String.format("%05d", member % 100_000)});
+
+            int lines = 1 + random.nextInt(block.maxItemsPerOrder);
+            int totalPrice = 0;
+            for (int line = 0; line < lines; line++) {
+                int item = random.nextInt(block.prices.length);
+                int count = 1 + random.nextInt(5);
+                totalPrice += block.prices[item] * count;
+                orderItems.add(new Object[]{block.orderItemBase + (long) i * block.maxItemsPerOrder + line,
+                        orderId, block.itemBase + item, block.prices[item], count});
+            }
+            orders.add(new Object[]{orderId, block.memberBase + member, deliveryId, orderDate, status, totalPrice, lines});
+
+            if (orders.size() == BATCH_SIZE || i == to - 1) {
+                orderItemCount += orderItems.size();
+                transactionTemplate.executeWithoutResult(s -> {
+                    batchInsert("insert into delivery (delivery_id, status, city, street, zipcode) values (?, ?, ?, ?, ?)", deliveries);
+                    batchInsert("insert into orders (order_id, member_id, delivery_id, order_date, status, total_price, line_count) values (?, ?, ?, ?, ?, ?, ?)", orders);
+                    batchInsert("insert into order_item (order_item_id, order_id, item_id, order_price, count) values (?, ?, ?, ?, ?)", orderItems);
+                });
+            }
+        }
+        return orderItemCount;
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class OrderBlock {
+        private final DataGenerationSpec spec;
+        private final int index;
+        private final long memberBase;
+        private final long itemBase;
+        private final long orderBase;
+        private final long deliveryBase;
+        private final long orderItemBase;
+        private final int maxItemsPerOrder;
+        private final int[] prices;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private int members;
+        private int items;
+        private int orders;
+        private long orderItems;
+        private long elapsedMillis;
+
+        @Override
+        public String toString() {
+            return "members=" + members + ", items=" + items + ", orders=" + orders
+                    + ", orderItems=" + orderItems + ", elapsedMillis=" + elapsedMillis;
+        }
+    }
+}
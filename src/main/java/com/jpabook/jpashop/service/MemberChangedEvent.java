@@ -0,0 +1,14 @@
+package com.jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 회원 가입 / 이름 변경 이벤트 (커밋 후 MemberNameIndex 갱신)
+ */
+@Getter
+@AllArgsConstructor
+public class MemberChangedEvent {
+    private final Long memberId;
+    private final String name;
+}
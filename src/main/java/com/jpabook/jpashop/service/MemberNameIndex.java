@@ -0,0 +1,148 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원 이름 n-gram 역색인 (메모리)
+ *
+ * like '%name%' 는 B-tree 인덱스를 쓸 수 없어서 회원 테이블을 풀 스캔한다.
+ * 회원 이름의 1~3글자 부분 문자열마다 회원 id 집합을 들고 있다가 이름 조각을 회원 id 목록으로 바꿔준다.
+ * - 3글자 이하 조각은 해당 n-gram 의 id 집합이 바로 결과다.
+ * - 더 긴 조각은 3-gram 집합을 교집합한 뒤 실제 이름에 조각이 포함되는지 다시 확인한다.
+ * - 가입/이름 변경은 커밋 후 이벤트로 반영하고, 시작할 때(와 대량 데이터 생성 후) 전체를 다시 색인한다.
+ * - DB를 직접 수정하면 reindexAll() 전까지는 반영되지 않는다.
+ * - 전체 색인은 새 맵에 만든 뒤 한 번에 교체한다. 변경 반영과 전체 색인은 한 번에 하나씩만 실행해서
+ *   색인 도중에 커밋된 변경이 교체로 사라지지 않게 한다. 조회는 잠금 없이 현재 색인을 읽는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberNameIndex {
+
+    private static final int MAX_GRAM = 3;
+
+    private final MemberRepository memberRepository;
+
+    private volatile Index current = new Index();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void reindexAll() {
+        long start = System.currentTimeMillis();
+        Index rebuilt = new Index();
+        for (Object[] row : memberRepository.findAllIdAndName()) {
+            rebuilt.index((Long) row[0], (String) row[1]);
+        }
+        current = rebuilt;
+        log.info("회원 이름 색인 완료. members={}, grams={}, {}ms",
+                rebuilt.names.size(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onMemberChanged(MemberChangedEvent event) {
+        current.index(event.getMemberId(), event.getName());
+    }
+
+    /**
+     * 이름 조각이 포함된 회원 id (오름차순)
+     */
+    public List<Long> search(String fragment) {
+        if (!StringUtils.hasLength(fragment)) {
+            return Collections.emptyList();
+        }
+        Index index = current;
+        List<Long> result;
+        if (fragment.length() <= MAX_GRAM) {
+            result = new ArrayList<>(index.postings.getOrDefault(fragment, Collections.emptySet()));
+        } else {
+            result = searchLong(index, fragment);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static List<Long> searchLong(Index index, String fragment) {
+        List<Set<Long>> sets = new ArrayList<>();
+        for (String gram : grams(fragment, MAX_GRAM)) {
+            Set<Long> set = index.postings.get(gram);
+            if (set == null) {
+                return new ArrayList<>();
+            }
+            sets.add(set);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        List<Long> result = new ArrayList<>();
+        for (Long id : sets.get(0)) {
+            String name = index.names.get(id);
+            if (name != null && name.contains(fragment)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 회원 id -> 이름, n-gram -> 회원 id 집합
+     */
+    private static class Index {
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        private void index(Long memberId, String name) {
+            String old = name == null ? names.remove(memberId) : names.put(memberId, name);
+            if (old != null && old.equals(name)) {
+                return;
+            }
+            if (old != null) {
+                for (String gram : allGrams(old)) {
+                    postings.computeIfPresent(gram, (k, ids) -> {
+                        ids.remove(memberId);
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+            if (name != null) {
+                for (String gram : allGrams(name)) {
+                    postings.compute(gram, (k, ids) -> {
+                        Set<Long> set = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                        set.add(memberId);
+                        return set;
+                    });
+                }
+            }
+        }
+    }
+
+    private static Set<String> allGrams(String name) {
+        Set<String> grams = new HashSet<>();
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            grams.addAll(grams(name, n));
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int n) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + n <= text.length(); i++) {
+            grams.add(text.substring(i, i + n));
+        }
+        return grams;
+    }
+}
@@ -4,39 +4,43 @@ import com.jpabook.jpashop.domain.Member;
 import com.jpabook.jpashop.repository.MemberRepository;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class MemberService {
+    private static final String MEMBER_NAME_CONSTRAINT = "uk_member_name";
+
     private final MemberRepository memberRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 회원 가입
+     * 이름 중복은 member.name 유니크 제약(uk_member_name)으로 검사한다.
+     * 먼저 조회하고 저장하면 쿼리가 한 번 더 나가고, 동시에 같은 이름으로 가입하면 둘 다 통과할 수 있다.
+     * 바로 insert(flush) 하고 제약 위반이면 중복 회원으로 처리한다.
      * @param member
      * @return id
      */
     @Transactional
     public Long join(Member member){
-        validateDuplicateMember(member);
-        memberRepository.save(member);
-        return member.getId();
-    }
-
-    /**
-     * 중복 회원 검증
-     * @param member
-     */
-    private void validateDuplicateMember(Member member) {
-        List<Member> findMembers = memberRepository.findByName(member.getName());
-        if(!findMembers.isEmpty()){
-            throw  new IllegalStateException("이미 존재하는 회원입니다.");
+        try {
+            memberRepository.save(member);
+            memberRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateName(e);
         }
+        eventPublisher.publishEvent(new MemberChangedEvent(member.getId(), member.getName()));
+        return member.getId();
     }
 
     /**
@@ -60,5 +64,25 @@ public class MemberService {
     public void update(Long id, String name) {
         Member member = memberRepository.findOne(id);
         member.setName(name);
+        try {
+            memberRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateName(e);
+        }
+        eventPublisher.publishEvent(new MemberChangedEvent(id, name));
+    }
+
+    /**
+     * 이름 유니크 제약 위반만 중복 회원으로 바꾸고, 다른 제약 위반(not null, 길이 등)은 그대로 던진다.
+     */
+    private static RuntimeException translateDuplicateName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(MEMBER_NAME_CONSTRAINT)) {
+                return new IllegalStateException("이미 존재하는 회원입니다.", e);
+            }
+        }
+        return e;
     }
 }
@@ -0,0 +1,89 @@
+package com.jpabook.jpashop.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 주문 취소 작업 실행 큐
+ *
+ * 작업은 전용 쓰레드 하나에서 등록 순서대로 하나씩 실행한다. (취소 작업끼리 같은 상품 재고 잠금을 다투지 않도록)
+ * - 등록/재개 트랜잭션이 커밋된 후 큐에 넣는다.
+ * - 애플리케이션이 종료되어 멈춘 작업(QUEUED, RUNNING)은 다음 기동 시 마지막으로 커밋된 배치 다음부터 다시 실행한다.
+ * - 배치 처리 중 예외가 나면 작업을 FAILED 로 남기고, 재개 API로 이어서 실행할 수 있다.
+ */
+@Slf4j
+@Component
+public class OrderCancelJobRunner {
+
+    private final OrderCancelJobService orderCancelJobService;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public OrderCancelJobRunner(OrderCancelJobService orderCancelJobService) {
+        this.orderCancelJobService = orderCancelJobService;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), r -> {
+            Thread thread = new Thread(r, "order-cancel-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSubmitted(OrderCancelJobSubmittedEvent event) {
+        execute(event.getJobId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (Long jobId : orderCancelJobService.findUnfinishedJobIds()) {
+            log.info("중단된 주문 취소 작업 재개. jobId={}", jobId);
+            execute(jobId);
+        }
+    }
+
+    private void execute(Long jobId) {
+        if (!queued.add(jobId)) {
+            return; // 이미 큐에 있거나 실행 중
+        }
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            // QUEUED 상태로 남으므로 다음 기동 시 실행된다.
+            queued.remove(jobId);
+            log.warn("주문 취소 작업 큐가 가득 찼습니다. jobId={}", jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        long start = System.currentTimeMillis();
+        try {
+            while (!Thread.currentThread().isInterrupted() && orderCancelJobService.cancelNextBatch(jobId)) {
+                // 배치마다 커밋
+            }
+            log.info("주문 취소 작업 종료. jobId={}, {}ms", jobId, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("주문 취소 작업 실패. jobId={}", jobId, e);
+            orderCancelJobService.fail(jobId, e.getMessage());
+        } finally {
+            queued.remove(jobId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,134 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.DeliveryStatus;
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderCancelJob;
+import com.jpabook.jpashop.domain.OrderCancelJobStatus;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.repository.ItemRepository;
+import com.jpabook.jpashop.repository.OrderCancelJobRepository;
+import com.jpabook.jpashop.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대량 주문 취소
+ *
+ * 주문마다 cancelOrder 를 부르면 주문상품마다 상품 재고 update 가 한 번씩 나간다.
+ * 대량 취소는 배치 단위로 주문 상태만 바꾸고 (Order.markCanceled)
+ * 재고는 배치 안의 주문상품을 상품별로 합산해서 상품당 update 한 번으로 복구한다. (ItemRepository.addStock)
+ * 실행은 OrderCancelJobRunner 가 백그라운드에서 cancelNextBatch 를 반복 호출한다.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderCancelJobService {
+
+    private final OrderCancelJobRepository orderCancelJobRepository;
+    private final OrderRepository orderRepository;
+    private final ItemRepository itemRepository;
+    private final StockReservationBuffer stockReservationBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 작업 등록 (커밋 후 백그라운드 실행)
+     */
+    @Transactional
+    public Long submit(Long memberId, LocalDateTime orderDateFrom, LocalDateTime orderDateTo, int batchSize) {
+        long targetCount = orderRepository.countCancelTargets(memberId, orderDateFrom, orderDateTo);
+        OrderCancelJob job = OrderCancelJob.createOrderCancelJob(memberId, orderDateFrom, orderDateTo, batchSize, targetCount);
+        orderCancelJobRepository.save(job);
+        eventPublisher.publishEvent(new OrderCancelJobSubmittedEvent(job.getId()));
+        return job.getId();
+    }
+
+    /**
+     * 실패한 작업 재개 (마지막으로 처리한 주문 다음부터)
+     */
+    @Transactional
+    public void resume(Long jobId) {
+        findJob(jobId).resume();
+        eventPublisher.publishEvent(new OrderCancelJobSubmittedEvent(jobId));
+    }
+
+    public OrderCancelJob findOne(Long jobId) {
+        return findJob(jobId);
+    }
+
+    public List<OrderCancelJob> findJobs(int limit) {
+        return orderCancelJobRepository.findAll(limit);
+    }
+
+    /**
+     * 끝나지 않은 작업 (재시작 시 이어서 실행)
+     */
+    public List<Long> findUnfinishedJobIds() {
+        return orderCancelJobRepository.findIdsByStatus(List.of(OrderCancelJobStatus.QUEUED, OrderCancelJobStatus.RUNNING));
+    }
+
+    /**
+     * 배치 하나 취소
+     * 주문 취소, 재고 복구, order_summary 갱신, 진행 상황이 한 트랜잭션으로 커밋된다.
+     * @return 다음 배치를 이어서 실행해야 하면 true
+     */
+    @Transactional
+    public boolean cancelNextBatch(Long jobId) {
+        OrderCancelJob job = findJob(jobId);
+        if (job.isFinished()) {
+            return false;
+        }
+        job.run();
+
+        List<Long> orderIds = orderRepository.findCancelTargetIds(job.getMemberId(), job.getOrderDateFrom(),
+                job.getOrderDateTo(), job.getLastOrderId(), job.getBatchSize());
+        if (orderIds.isEmpty()) {
+            job.complete();
+            return false;
+        }
+
+        List<Long> canceledIds = new ArrayList<>(orderIds.size());
+        for (Order order : orderRepository.findAllWithDeliveryForUpdate(orderIds)) {
+            // 대상 조회와 잠금 사이에 취소/배송완료된 주문은 건너뛴다.
+            if (order.getStatus() == OrderStatus.ORDER && order.getDelivery().getStatus() != DeliveryStatus.COMP) {
+                order.markCanceled();
+                canceledIds.add(order.getId());
+            }
+        }
+        if (!canceledIds.isEmpty()) {
+            restoreStock(canceledIds);
+            eventPublisher.publishEvent(new OrdersCanceledEvent(canceledIds));
+        }
+        job.progress(orderIds.get(orderIds.size() - 1), canceledIds.size(), orderIds.size() - canceledIds.size());
+        return true;
+    }
+
+    @Transactional
+    public void fail(Long jobId, String errorMessage) {
+        findJob(jobId).fail(errorMessage);
+    }
+
+    private void restoreStock(List<Long> orderIds) {
+        orderRepository.sumCountByItem(orderIds).forEach((itemId, count) -> {
+            if (stockReservationBuffer.isEnabled()) {
+                // 재고 예약 버퍼를 쓰면 취소 재고는 커밋 후 버퍼의 리스로 돌려준다. (cancelOrder 와 동일)
+                stockReservationBuffer.releaseAfterCommit(itemId, count);
+            } else {
+                itemRepository.addStock(itemId, count);
+            }
+        });
+    }
+
+    private OrderCancelJob findJob(Long jobId) {
+        OrderCancelJob job = orderCancelJobRepository.findOne(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("존재하지 않는 취소 작업입니다. jobId=" + jobId);
+        }
+        return job;
+    }
+}
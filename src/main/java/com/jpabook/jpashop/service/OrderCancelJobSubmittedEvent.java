@@ -0,0 +1,13 @@
+package com.jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 대량 주문 취소 작업 등록/재개 이벤트 (커밋 후 작업 실행)
+ */
+@Getter
+@AllArgsConstructor
+public class OrderCancelJobSubmittedEvent {
+    private final Long jobId;
+}
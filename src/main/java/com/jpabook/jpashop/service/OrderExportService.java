@@ -0,0 +1,55 @@
+package com.jpabook.jpashop.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import com.jpabook.jpashop.repository.order.query.OrderQueryDto;
+import com.jpabook.jpashop.repository.order.query.OrderQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 전체 주문을 NDJSON(한 줄에 주문 하나)으로 출력
+     * 커서로 읽은 row를 바로 쓰기 때문에 주문 건수가 늘어도 메모리에는 주문 하나만 올라간다.
+     */
+    public void exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // 줄 사이에 기본 구분자(공백)를 넣지 않는다.
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            OrderFlatAssembler assembler = new OrderFlatAssembler(order -> writeLine(generator, writer, order));
+            try {
+                orderQueryRepository.scrollAllDto_flat(FETCH_SIZE, assembler);
+                assembler.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static void writeLine(JsonGenerator generator, ObjectWriter writer, OrderQueryDto order) {
+        try {
+            writer.writeValue(generator, order);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.jpabook.jpashop.service;
+
+/**
+ * 주문 페이지 조회 시 전체 건수를 구하는 방법
+ */
+public enum OrderPageCount {
+    /** 매번 count 쿼리 */
+    EXACT,
+    /** 같은 검색 조건이면 COUNT_TTL 동안 이전 count 결과를 재사용 */
+    CACHED,
+    /** count 쿼리 생략. 다음 페이지가 있는지만 알 수 있다. */
+    SKIP
+}
@@ -0,0 +1,13 @@
+package com.jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 주문 생성 이벤트 (커밋 전 order_summary 반영)
+ */
+@Getter
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private final Long orderId;
+}
@@ -2,23 +2,44 @@ package com.jpabook.jpashop.service;
 
 import com.jpabook.jpashop.domain.*;
 import com.jpabook.jpashop.domain.item.Item;
+import com.jpabook.jpashop.exception.NotEnoughStockException;
 import com.jpabook.jpashop.repository.ItemRepository;
 import com.jpabook.jpashop.repository.MemberRepository;
+import com.jpabook.jpashop.repository.OrderFetchPlan;
 import com.jpabook.jpashop.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final Duration COUNT_TTL = Duration.ofSeconds(30);
+    private static final int COUNT_CACHE_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final MemberRepository memberRepository;
     private final ItemRepository itemRepository;
+    private final StockReservationBuffer stockReservationBuffer;
+    private final MemberNameIndex memberNameIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
 
     /**
      * 주문
@@ -34,32 +55,268 @@ public class OrderService {
         delivery.setAddress(member.getAddress());
 
         //주문상품 생성
-        OrderItem orderItem = OrderItem.createOrderItem(item, item.getPrice(), count);
+        OrderItem orderItem = createOrderItem(item, count);
 
         //주문 생성
         Order order = Order.createOrder(member, delivery, orderItem);
 
         //주문 저장
         orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderPlacedEvent(order.getId()));
+
+        return order.getId();
+    }
+
+    private OrderItem createOrderItem(Item item, int count) {
+        if (!stockReservationBuffer.isEnabled()) {
+            return OrderItem.createOrderItem(item, item.getPrice(), count);
+        }
+        // 재고 예약 버퍼를 쓰면 상품 엔티티 대신 버퍼의 리스에서 재고를 차감한다.
+        stockReservationBuffer.reserve(item.getId(), count);
+        return OrderItem.createReservedOrderItem(item, item.getPrice(), count);
+    }
+
+    /**
+     * 대량 주문
+     * 요청 전체를 한 트랜잭션에서 처리하고, 회원과 상품은 각각 IN 쿼리로 한 번에 조회한다.
+     * 상품은 쓰기 잠금으로 조회하므로 처리 중에 다른 트랜잭션이 재고를 바꾸지 못한다.
+     * 주문 저장은 hibernate.jdbc.batch_size, order_inserts 설정으로 JDBC batch insert 된다.
+     * 주문 단위로 검증해서 실패한 주문만 결과에 사유를 남기고 나머지 주문은 계속 처리한다.
+     */
+    @Transactional
+    public List<BatchOrderResult> orderBatch(List<BatchOrder> batchOrders){
+        //엔티티 일괄 조회
+        Map<Long, Member> members = memberRepository.findAllByIds(batchOrders.stream()
+                        .map(BatchOrder::getMemberId).distinct().collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Member::getId, Function.identity()));
+        Map<Long, Item> items = itemRepository.findAllByIdsForUpdate(batchOrders.stream()
+                        .filter(o -> o.getLines() != null)
+                        .flatMap(o -> o.getLines().stream()).map(BatchOrder.Line::getItemId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BatchOrderResult> results = new ArrayList<>(batchOrders.size());
+        for (int i = 0; i < batchOrders.size(); i++) {
+            try {
+                results.add(BatchOrderResult.success(i, placeOrder(batchOrders.get(i), members, items)));
+            } catch (NotEnoughStockException | IllegalArgumentException e) {
+                results.add(BatchOrderResult.failure(i, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private Long placeOrder(BatchOrder batchOrder, Map<Long, Member> members, Map<Long, Item> items) {
+        Member member = members.get(batchOrder.getMemberId());
+        if (member == null) {
+            throw new IllegalArgumentException("존재하지 않는 회원입니다. memberId=" + batchOrder.getMemberId());
+        }
+        if (batchOrder.getLines() == null || batchOrder.getLines().isEmpty()) {
+            throw new IllegalArgumentException("주문상품이 없습니다.");
+        }
+
+        //재고 검증 (주문 하나에서 일부 상품만 재고가 빠지지 않도록 먼저 전체 수량을 확인)
+        Map<Item, Integer> required = new HashMap<>();
+        for (BatchOrder.Line line : batchOrder.getLines()) {
+            Item item = items.get(line.getItemId());
+            if (item == null) {
+                throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + line.getItemId());
+            }
+            if (line.getCount() <= 0) {
+                throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다. itemId=" + line.getItemId());
+            }
+            required.merge(item, line.getCount(), Integer::sum);
+        }
+        required.forEach((item, count) -> {
+            if (item.getStockQuantity() < count) {
+                throw new NotEnoughStockException("read more Stock. itemId=" + item.getId());
+            }
+        });
+
+        //배송정보 생성
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+
+        //주문상품 생성
+        OrderItem[] orderItems = batchOrder.getLines().stream()
+                .map(line -> {
+                    Item item = items.get(line.getItemId());
+                    return OrderItem.createOrderItem(item, item.getPrice(), line.getCount());
+                })
+                .toArray(OrderItem[]::new);
+
+        //주문 생성, 저장
+        Order order = Order.createOrder(member, delivery, orderItems);
+        orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderPlacedEvent(order.getId()));
+        return order.getId();
+    }
+
+    /**
+     * 주문 (재고 원자적 차감)
+     * 상품 엔티티를 읽고 자바에서 재고를 빼는 대신 조건부 update로 먼저 차감한다.
+     * 같은 상품에 주문이 몰려도 초과 판매가 없고, 재고가 부족하면 update 결과가 0건이므로 바로 실패한다.
+     */
+    @Transactional
+    public Long orderWithStockReservation(Long memberId, Long itemId, int count){
+        //재고 차감 (update 결과가 0건이면 상품이 없거나 재고가 부족하다)
+        if(!itemRepository.removeStock(itemId, count)){
+            if(itemRepository.findStockQuantity(itemId).isEmpty()){
+                throw new IllegalArgumentException("존재하지 않는 상품입니다. itemId=" + itemId);
+            }
+            throw new NotEnoughStockException("read more Stock");
+        }
+
+        //엔티티 조회
+        Member member = memberRepository.findOne(memberId);
+        Item item = itemRepository.findOne(itemId);
+
+        //배송정보 생성
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+
+        //주문상품 생성 (재고는 이미 차감됨)
+        OrderItem orderItem = OrderItem.createReservedOrderItem(item, item.getPrice(), count);
+
+        //주문 생성
+        Order order = Order.createOrder(member, delivery, orderItem);
+
+        //주문 저장
+        orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderPlacedEvent(order.getId()));
 
         return order.getId();
     }
 
     /**
      * 주문 취소
+     * 주문을 쓰기 잠금으로 조회하므로 대량 취소 작업(OrderCancelJobService)이 같은 주문을 처리 중이면 커밋까지 기다린다.
+     * 이미 취소된 주문은 재고를 다시 복구하지 않도록 아무것도 하지 않는다.
      */
     @Transactional
     public void cancelOrder(Long orderId){
         // 주문 엔티티 조회
-        Order order = orderRepository.findOne(orderId);
-        // 주문 취소
-        order.cancel();
+        Order order = orderRepository.findOneForUpdate(orderId);
+        if (order.getStatus() == OrderStatus.ORDER) {
+            // 주문 취소
+            if (!stockReservationBuffer.isEnabled()) {
+                order.cancel();
+            } else {
+                // 재고 예약 버퍼를 쓰면 취소 재고는 커밋 후 버퍼의 리스로 돌려준다.
+                order.markCanceled();
+                for (OrderItem orderItem : order.getOrderItems()) {
+                    stockReservationBuffer.releaseAfterCommit(orderItem.getItem().getId(), orderItem.getCount());
+                }
+            }
+            eventPublisher.publishEvent(new OrderCanceledEvent(orderId));
+        }
     }
 
     /**
      * 검색
      */
     public List<Order> findOrders(OrderSearch orderSearch){
-        return orderRepository.findAll(orderSearch);
+        return orderRepository.findAllBySearch(orderSearch);
+    }
+
+    /**
+     * 주문 + 회원, 배송 (페치 조인) 페이지
+     * 주문상품, 상품은 트랜잭션 안에서 batch fetch 로 초기화해서 돌려준다. (OSIV 꺼져 있음)
+     */
+    public List<Order> findOrdersWithMemberDelivery(int offset, int limit){
+        return initializeOrderItems(orderRepository.findAllWithMemberDelivery(offset, limit));
+    }
+
+    /**
+     * 키셋 페이징. lastOrderId 다음 주문부터 limit 건 (주문상품, 상품 초기화)
+     */
+    public List<Order> findOrdersWithMemberDeliveryAfter(Long lastOrderId, int limit){
+        return initializeOrderItems(orderRepository.findAllWithMemberDeliveryAfter(lastOrderId, limit));
+    }
+
+    /**
+     * fetch plan 으로 주문 페이지 조회 (/api/v7/orders)
+     * plan 에 포함된 연관관계만 트랜잭션 안에서 조인해서 돌려준다.
+     */
+    public List<Order> findOrders(OrderFetchPlan plan, int offset, int limit){
+        return orderRepository.findAll(plan, offset, limit);
+    }
+
+    private static List<Order> initializeOrderItems(List<Order> orders){
+        for (Order order : orders) {
+            for (OrderItem orderItem : order.getOrderItems()) {
+                orderItem.getItem().getName();
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * 회원 이름 일부로 검색 (like '%name%' 대신 MemberNameIndex -> o.member.id in)
+     * 이름 조건이 없으면 주문 상태로만 검색한다. 최대 1000건
+     * 어느 경우든 회원, 배송을 페치 조인하므로 트랜잭션 밖에서 DTO로 변환할 수 있다.
+     */
+    public List<Order> findOrdersByMemberNameFragment(OrderSearch orderSearch){
+        if (!StringUtils.hasLength(orderSearch.getMemberName())) {
+            return orderRepository.findAllBySearch(orderSearch);
+        }
+        List<Long> memberIds = memberNameIndex.search(orderSearch.getMemberName());
+        if (memberIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return orderRepository.findAllByMemberIds(memberIds, orderSearch.getOrderStatus(), 1000);
+    }
+
+    /**
+     * 검색 + 주문상품까지 페치 조인한 페이지 조회
+     * 컬렉션 페치 조인은 DB 페이징이 안 되므로 주문 id 한 페이지를 먼저 조회하고 그 주문만 페치 조인한다.
+     * 한 번에 메모리에 올라오는 주문은 페이지 크기만큼이다.
+     * id는 size + 1 건을 조회해서 다음 페이지가 있는지 확인하고, 전체 건수는 count 방법에 따라 구한다.
+     */
+    public Page<Order> findOrdersWithItems(OrderSearch orderSearch, Pageable pageable, OrderPageCount count){
+        int offset = (int) pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<Long> orderIds = orderRepository.findIdsBySearch(orderSearch, offset, size + 1);
+        boolean hasNext = orderIds.size() > size;
+        if (hasNext) {
+            orderIds = orderIds.subList(0, size);
+        }
+        List<Order> orders = orderRepository.findAllWithItem(orderIds);
+
+        long total;
+        if (!hasNext && (!orderIds.isEmpty() || offset == 0)) {
+            total = offset + orderIds.size(); // 마지막 페이지면 count 쿼리 없이 알 수 있다.
+        } else if (count == OrderPageCount.EXACT) {
+            total = orderRepository.countBySearch(orderSearch);
+        } else if (count == OrderPageCount.CACHED) {
+            total = cachedCount(orderSearch);
+        } else {
+            total = offset + orderIds.size() + (hasNext ? 1 : 0); // 최소 건수 (다음 페이지 유무만 정확)
+        }
+        return new PageImpl<>(orders, pageable, total);
+    }
+
+    private long cachedCount(OrderSearch orderSearch) {
+        String key = orderRepository.searchKey(orderSearch);
+        long now = System.nanoTime();
+        CachedCount cached = countCache.get(key);
+        if (cached != null && now - cached.createdAt < COUNT_TTL.toNanos()) {
+            return cached.count;
+        }
+        if (countCache.size() >= COUNT_CACHE_SIZE) {
+            countCache.clear();
+        }
+        long count = orderRepository.countBySearch(orderSearch);
+        countCache.put(key, new CachedCount(count, now));
+        return count;
+    }
+
+    private static class CachedCount {
+        private final long count;
+        private final long createdAt;
+
+        CachedCount(long count, long createdAt) {
+            this.count = count;
+            this.createdAt = createdAt;
+        }
     }
 }
@@ -0,0 +1,98 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderSummary;
+import com.jpabook.jpashop.repository.OrderRepository;
+import com.jpabook.jpashop.repository.OrderSummaryRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * order_summary 읽기 모델 관리
+ *
+ * 주문/주문취소(대량 취소 포함)/회원 이름 변경 이벤트를 커밋 직전(BEFORE_COMMIT)에 반영하므로
+ * 원본 데이터와 요약은 같은 트랜잭션으로 함께 커밋되거나 함께 롤백된다.
+ * 서비스를 거치지 않고 DB를 바꾼 경우(InitDb, 대량 데이터 생성)는 rebuild() 로 다시 만든다.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class OrderSummaryService {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderRepository orderRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        Order order = orderRepository.findOne(event.getOrderId());
+        orderSummaryRepository.save(OrderSummary.createOrderSummary(order));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderCanceled(OrderCanceledEvent event) {
+        OrderSummary summary = orderSummaryRepository.findOne(event.getOrderId());
+        if (summary != null) {
+            summary.cancel();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrdersCanceled(OrdersCanceledEvent event) {
+        orderSummaryRepository.cancelAll(event.getOrderIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onMemberChanged(MemberChangedEvent event) {
+        orderSummaryRepository.updateMemberName(event.getMemberId(), event.getName());
+    }
+
+    public List<OrderSummary> findSummaries(int offset, int limit) {
+        return orderSummaryRepository.findAll(offset, limit);
+    }
+
+    /**
+     * 전체 재생성
+     */
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        int rows = orderSummaryRepository.rebuild();
+        log.info("order_summary 재생성 완료. rows={}, {}ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * 원본과 비교해서 불일치 건수와 불일치 주문 id(최대 100개)를 돌려준다.
+     */
+    public ConsistencyReport check() {
+        return new ConsistencyReport(
+                orderSummaryRepository.countOrders(),
+                orderSummaryRepository.countSummaries(),
+                orderSummaryRepository.countInconsistent(),
+                orderSummaryRepository.countOrphaned(),
+                orderSummaryRepository.findInconsistentOrderIds(100));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ConsistencyReport {
+        private long orders;
+        private long summaries;
+        private long inconsistent; // 요약이 없거나 값이 다른 주문
+        private long orphaned;     // 주문이 없는 요약
+        private List<Long> sampleOrderIds;
+
+        public boolean isConsistent() {
+            return inconsistent == 0 && orphaned == 0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.jpabook.jpashop.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 대량 주문 취소 이벤트 (배치 하나, 커밋 전 order_summary 일괄 반영)
+ */
+@Getter
+@AllArgsConstructor
+public class OrdersCanceledEvent {
+    private final List<Long> orderIds;
+}
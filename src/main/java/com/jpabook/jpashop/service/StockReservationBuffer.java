@@ -0,0 +1,263 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.exception.NotEnoughStockException;
+import com.jpabook.jpashop.repository.ItemRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 재고 예약 버퍼 (jpashop.stock-buffer.enabled=true 일 때만 사용)
+ *
+ * 주문이 몰리는 상품의 재고를 최대 lease-size 만큼 DB에서 미리 차감(리스)해 두고, 주문은 메모리의 리스에서 차감한다.
+ * - 상품별 리스는 ConcurrentHashMap + AtomicInteger CAS 로 관리해서 상품끼리 경합하지 않는다.
+ * - 리스가 부족한 주문은 현재 트랜잭션에서 조건부 update로 바로 차감하고, 리스 보충은 백그라운드에서 별도 트랜잭션으로 한다.
+ *   주문 트랜잭션이 커넥션을 하나 더 기다리지 않으므로 커넥션 풀이 고갈되어도 교착 상태가 생기지 않는다.
+ * - 보충은 DB 재고가 lease-size 보다 적으면 남은 재고만 가져온다. 가져올 재고가 없으면 다음 flush 까지(또는 바로 차감이
+ *   성공할 때까지) 보충을 요청하지 않으므로 재고가 바닥난 상품의 주문은 update 를 한 번만 실행한다.
+ * - 주문 취소로 돌아온 재고는 리스로 돌려받는다.
+ * - flush 주기 동안 주문이 없었던 상품의 리스는 전부, 주문이 있었던 상품은 lease-size 의 2배를 넘는 리스를 DB에 반납한다.
+ *   그래서 DB 재고가 리스만큼 적게 보이는 것은 주문이 계속 들어오는 상품뿐이다.
+ * - 정상 종료 시 남은 리스를 모두 DB에 반납한다. (프로세스가 강제 종료되면 반납되지 않은 리스만큼 재고가 비어 보인다)
+ */
+@Slf4j
+@Component
+public class StockReservationBuffer {
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate newTransaction;
+    private final boolean enabled;
+    private final int leaseSize;
+
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final ExecutorService refillExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stock-lease-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder leased = new LongAdder();    // DB에서 리스로 가져온 수량
+    private final LongAdder consumed = new LongAdder();  // 리스에서 주문으로 차감한 수량
+    private final LongAdder returned = new LongAdder();  // 주문 취소/롤백으로 리스에 돌아온 수량
+    private final LongAdder flushed = new LongAdder();   // 리스에서 DB로 반납한 수량
+    private final LongAdder direct = new LongAdder();    // 리스가 부족해서 DB에서 바로 차감한 수량
+
+    public StockReservationBuffer(ItemRepository itemRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jpashop.stock-buffer.enabled:false}") boolean enabled,
+                                  @Value("${jpashop.stock-buffer.lease-size:100}") int leaseSize) {
+        this.itemRepository = itemRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.leaseSize = leaseSize;
+
+        FunctionCounter.builder("stock.buffer.leased", leased, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("stock.buffer.consumed", consumed, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("stock.buffer.returned", returned, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("stock.buffer.flushed", flushed, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("stock.buffer.direct", direct, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("stock.buffer.available", this, StockReservationBuffer::available).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 재고 예약
+     * 리스에 재고가 있으면 메모리에서만 차감하고, 없으면 현재 트랜잭션에서 DB 재고를 바로 차감한다.
+     * 주문 트랜잭션이 롤백되면 리스에서 차감한 수량은 리스로 돌려놓는다.
+     */
+    public void reserve(Long itemId, int count) {
+        Lease lease = lease(itemId);
+        lease.used = true;
+        if (lease.tryTake(count)) {
+            consumed.add(count);
+            afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK, () -> release(itemId, count));
+            if (lease.available.get() < leaseSize / 4) {
+                requestRefill(itemId, lease);
+            }
+            return;
+        }
+
+        requestRefill(itemId, lease);
+        if (!itemRepository.removeStock(itemId, count)) {
+            throw new NotEnoughStockException("read more Stock");
+        }
+        lease.exhausted = false; // DB 재고가 다시 생겼으므로 보충 가능
+        direct.add(count);
+    }
+
+    /**
+     * 주문 취소 재고를 리스로 반환 (트랜잭션 커밋 후)
+     */
+    public void releaseAfterCommit(Long itemId, int count) {
+        afterCompletion(TransactionSynchronization.STATUS_COMMITTED, () -> release(itemId, count));
+    }
+
+    private void release(Long itemId, int count) {
+        lease(itemId).available.addAndGet(count);
+        returned.add(count);
+    }
+
+    /**
+     * 남는 리스를 DB에 반납
+     * 지난 flush 이후 주문이 없었던 상품은 리스를 전부 반납하고,
+     * 주문이 있었던 상품은 리스가 lease-size의 2배를 넘게 쌓였을 때 (주로 취소 재고) lease-size만 남기고 반납한다.
+     */
+    @Scheduled(fixedDelayString = "${jpashop.stock-buffer.flush-interval:5000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        leases.forEach((itemId, lease) -> {
+            boolean idle = !lease.used;
+            lease.used = false;
+            lease.exhausted = false;
+            int available = lease.available.get();
+            int excess = idle ? available : available - leaseSize;
+            if ((idle || available > leaseSize * 2) && excess > 0 && lease.tryTake(excess)) {
+                giveBack(itemId, lease, excess);
+            }
+        });
+    }
+
+    /**
+     * 종료 시 남은 리스를 모두 DB에 반납
+     */
+    @PreDestroy
+    public void returnAll() {
+        refillExecutor.shutdown();
+        try {
+            refillExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        leases.forEach((itemId, lease) -> {
+            int remaining = lease.available.getAndSet(0);
+            if (remaining > 0) {
+                giveBack(itemId, lease, remaining);
+            }
+        });
+    }
+
+    private void giveBack(Long itemId, Lease lease, int quantity) {
+        try {
+            newTransaction.executeWithoutResult(status -> itemRepository.addStock(itemId, quantity));
+            flushed.add(quantity);
+        } catch (RuntimeException e) {
+            lease.available.addAndGet(quantity);
+            log.warn("재고 리스 반납 실패. itemId={}, quantity={}", itemId, quantity, e);
+        }
+    }
+
+    private void requestRefill(Long itemId, Lease lease) {
+        if (lease.exhausted || !lease.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        refillExecutor.execute(() -> {
+            try {
+                Integer granted = newTransaction.execute(status -> takeLease(itemId));
+                if (granted != null && granted > 0) {
+                    lease.available.addAndGet(granted);
+                    leased.add(granted);
+                } else {
+                    lease.exhausted = true;
+                }
+            } catch (RuntimeException e) {
+                log.warn("재고 리스 보충 실패. itemId={}", itemId, e);
+            } finally {
+                lease.refilling.set(false);
+            }
+        });
+    }
+
+    /**
+     * DB 재고에서 최대 lease-size 만큼 차감하고 차감한 수량을 돌려준다.
+     * 재고를 읽은 뒤 다른 주문이 먼저 차감해서 조건부 update 가 실패하면 다시 읽는다.
+     */
+    private int takeLease(Long itemId) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            int quantity = Math.min(leaseSize, itemRepository.findStockQuantity(itemId).orElse(0));
+            if (quantity == 0) {
+                return 0;
+            }
+            if (itemRepository.removeStock(itemId, quantity)) {
+                return quantity;
+            }
+        }
+        return 0;
+    }
+
+    private Lease lease(Long itemId) {
+        return leases.computeIfAbsent(itemId, id -> new Lease());
+    }
+
+    /**
+     * 상품의 남은 리스 수량
+     */
+    int available(Long itemId) {
+        Lease lease = leases.get(itemId);
+        return lease == null ? 0 : lease.available.get();
+    }
+
+    private long available() {
+        return leases.values().stream().mapToLong(lease -> lease.available.get()).sum();
+    }
+
+    private static void afterCompletion(int expectedStatus, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (expectedStatus == TransactionSynchronization.STATUS_COMMITTED) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == expectedStatus) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private static class Lease {
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile boolean used;      // 지난 flush 이후 주문이 있었는지
+        private volatile boolean exhausted; // 마지막 보충에서 DB에 가져올 재고가 없었는지
+
+        boolean tryTake(int count) {
+            int current;
+            do {
+                current = available.get();
+                if (current < count) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - count));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- 주문 검색 / 회원 이름 중복 검사 인덱스
+create index idx_orders_status_order_date on orders (status, order_date);
+create index idx_orders_member_id on orders (member_id);
+create index idx_order_item_order_id on order_item (order_id);
+alter table member add constraint uk_member_name unique (name);
@@ -0,0 +1,26 @@
+-- 주문 목록 조회용 읽기 모델
+create table order_summary (
+    order_id bigint not null,
+    member_id bigint,
+    member_name varchar(255),
+    order_date timestamp(6),
+    status varchar(255) check (status in ('ORDER', 'CANCEL')),
+    city varchar(255),
+    street varchar(255),
+    zipcode varchar(255),
+    total_price integer not null,
+    line_count integer not null,
+    primary key (order_id)
+);
+
+create index idx_order_summary_member_id on order_summary (member_id);
+create index idx_order_summary_status_order_date on order_summary (status, order_date);
+
+insert into order_summary (order_id, member_id, member_name, order_date, status, city, street, zipcode, total_price, line_count)
+select o.order_id, m.member_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode,
+       coalesce(sum(oi.order_price * oi.count), 0), count(oi.order_item_id)
+from orders o
+join member m on m.member_id = o.member_id
+join delivery d on d.delivery_id = o.delivery_id
+left join order_item oi on oi.order_id = o.order_id
+group by o.order_id, m.member_id, m.name, o.order_date, o.status, d.city, d.street, d.zipcode;
@@ -0,0 +1,7 @@
+-- 주문 총액 / 주문상품 수
+alter table orders add column total_price integer default 0 not null;
+alter table orders add column line_count integer default 0 not null;
+
+update orders o set
+    total_price = coalesce((select sum(oi.order_price * oi.count) from order_item oi where oi.order_id = o.order_id), 0),
+    line_count = (select count(*) from order_item oi where oi.order_id = o.order_id);
@@ -0,0 +1,20 @@
+-- 대량 주문 취소 작업
+create sequence order_cancel_job_seq start with 1 increment by 1;
+
+create table order_cancel_job (
+    order_cancel_job_id bigint not null,
+    member_id bigint,
+    order_date_from timestamp(6),
+    order_date_to timestamp(6),
+    batch_size integer not null,
+    status varchar(255) check (status in ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    target_count bigint not null,
+    canceled_count bigint not null,
+    skipped_count bigint not null,
+    last_order_id bigint,
+    error_message varchar(255),
+    created_at timestamp(6),
+    started_at timestamp(6),
+    finished_at timestamp(6),
+    primary key (order_cancel_job_id)
+);
@@ -0,0 +1,43 @@
+package com.jpabook.jpashop;
+
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * db/migration 스키마와 엔티티 매핑 비교 (application-flyway.yml)
+ * ddl-auto: validate 이므로 컬럼이나 시퀀스가 엔티티와 다르면 컨텍스트가 뜨지 않는다.
+ * 시작할 때 InitDb 가 샘플 주문을 저장하므로 마이그레이션 스키마에 insert 도 된다.
+ */
+@SpringBootTest
+@ActiveProfiles("flyway")
+@Transactional
+class FlywayMigrationTest {
+
+	@Autowired Flyway flyway;
+	@Autowired EntityManager em;
+
+	@Test
+	void 마이그레이션_적용_후_엔티티_매핑_검증() {
+		MigrationInfo[] applied = flyway.info().applied();
+		assertEquals("5", applied[applied.length - 1].getVersion().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+
+		for (String entity : List.of("Member", "Item", "Category", "Delivery", "Order", "OrderItem",
+				"OrderSummary", "OrderCancelJob")) {
+			assertNotNull(em.createQuery("select count(e) from " + entity + " e", Long.class).getSingleResult(), entity);
+		}
+		assertTrue(em.createQuery("select count(o) from Order o", Long.class).getSingleResult() > 0,
+				"InitDb 샘플 주문");
+	}
+
+}
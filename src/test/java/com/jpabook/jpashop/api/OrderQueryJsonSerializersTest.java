@@ -0,0 +1,73 @@
+package com.jpabook.jpashop.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.repository.order.query.OrderFlatAssembler;
+import com.jpabook.jpashop.repository.order.query.OrderFlatDto;
+import com.jpabook.jpashop.repository.order.query.OrderItemQueryDto;
+import com.jpabook.jpashop.repository.order.query.OrderQueryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderQueryJsonSerializers(@JsonComponent)로 쓴 JSON 이 기본 리플렉션 직렬화와 같은지 확인
+ * 비교 대상은 스프링 부트 기본 설정과 같은 날짜 처리(JavaTimeModule, ISO 문자열)만 켠 ObjectMapper 다.
+ */
+@SpringBootTest
+public class OrderQueryJsonSerializersTest {
+
+    @Autowired ObjectMapper objectMapper;
+
+    private final ObjectMapper reflective = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    public void 등록된_직렬화기를_사용() throws Exception{
+        assertInstanceOf(OrderQueryJsonSerializers.OrderQueryDtoSerializer.class,
+                objectMapper.getSerializerProviderInstance().findValueSerializer(OrderQueryDto.class));
+        assertInstanceOf(OrderQueryJsonSerializers.OrderItemQueryDtoSerializer.class,
+                objectMapper.getSerializerProviderInstance().findValueSerializer(OrderItemQueryDto.class));
+    }
+
+    @Test
+    public void 주문_DTO_JSON_형식이_같다() throws Exception{
+        LocalDateTime orderDate = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6_000_000);
+        OrderQueryDto withItems = new OrderQueryDto(1L, "userA", orderDate, OrderStatus.ORDER,
+                new Address("서울", "강가 \"1\"", "123-123"), List.of(
+                new OrderItemQueryDto(1L, "JPA1 BOOK", 10000, 1),
+                new OrderItemQueryDto(1L, null, 20000, 2)));
+        OrderQueryDto nullAddressFields = new OrderQueryDto(2L, "userB", orderDate, OrderStatus.CANCEL,
+                new Address(null, "강가", null), new ArrayList<>());
+        OrderQueryDto nulls = new OrderQueryDto(3L, null, null, null, null); // 주문상품 목록을 채우기 전 (null)
+
+        assertSameJson(List.of(withItems, nullAddressFields, nulls));
+        assertSameJson(withItems.getOrderItems().get(0));
+    }
+
+    @Test
+    public void 플랫_조회_결과_JSON_형식이_같다() throws Exception{
+        LocalDateTime orderDate = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        List<OrderFlatDto> flats = List.of(
+                new OrderFlatDto(1L, "userA", orderDate, OrderStatus.ORDER, new Address("서울", "강가", "123-123"), "JPA1 BOOK", 10000, 1),
+                new OrderFlatDto(1L, "userA", orderDate, OrderStatus.ORDER, new Address("서울", "강가", "123-123"), "JPA2 BOOK", 20000, 2),
+                new OrderFlatDto(2L, "userB", orderDate, OrderStatus.ORDER, new Address(null, null, null), "SPRING1 BOOK", 30000, 3));
+
+        assertSameJson(flats);
+        assertSameJson(OrderFlatAssembler.assemble(flats));
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(reflective.writeValueAsString(value), objectMapper.writeValueAsString(value));
+    }
+}
@@ -0,0 +1,109 @@
+package com.jpabook.jpashop.repository;
+
+import com.jpabook.jpashop.domain.*;
+import com.jpabook.jpashop.domain.item.Book;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * fetch plan 별로 필요한 연관관계만 로딩하는지 확인
+ * 주문을 저장한 뒤 영속성 컨텍스트를 비우고, 그 주문 한 건만 조회되도록 offset 을 맞춘다.
+ * 조회 후에는 연관관계에 접근하기 전에 초기화 여부와 실행된 SQL 수를 본다.
+ * 테스트 application.yml 은 main 설정을 대신하므로 SQL 수를 세는 통계는 여기서 켠다.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class OrderFetchPlanTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderRepository orderRepository;
+
+    private Long orderId;
+    private int offset;
+
+    @BeforeEach
+    public void setUp() {
+        Member member = new Member();
+        member.setName("fetchPlan" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        em.persist(book);
+
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery,
+                OrderItem.createOrderItem(book, 10000, 1), OrderItem.createOrderItem(book, 10000, 2));
+        em.persist(order);
+        em.flush();
+        em.clear();
+
+        orderId = order.getId();
+        offset = em.createQuery("select count(o) from Order o where o.id < :orderId", Long.class)
+                .setParameter("orderId", orderId)
+                .getSingleResult().intValue();
+    }
+
+    @Test
+    public void SUMMARY는_주문상품을_읽지_않는다() {
+        long statements = statements();
+        Order order = findOne(OrderFetchPlan.SUMMARY);
+
+        assertEquals(1, statements() - statements, "주문 + 회원 + 배송 조인 한 번");
+        assertTrue(Hibernate.isInitialized(order.getMember()));
+        assertTrue(Hibernate.isInitialized(order.getDelivery()));
+        assertFalse(Hibernate.isInitialized(order.getOrderItems()));
+    }
+
+    @Test
+    public void WITH_ITEMS는_상품을_읽지_않는다() {
+        long statements = statements();
+        Order order = findOne(OrderFetchPlan.WITH_ITEMS);
+
+        assertEquals(2, statements() - statements, "주문 id 페이지 + 주문상품까지 조인");
+        assertTrue(Hibernate.isInitialized(order.getMember()));
+        assertTrue(Hibernate.isInitialized(order.getOrderItems()));
+        assertEquals(2, order.getOrderItems().size());
+        for (OrderItem orderItem : order.getOrderItems()) {
+            assertFalse(Hibernate.isInitialized(orderItem.getItem()));
+        }
+    }
+
+    @Test
+    public void FULL은_상품까지_읽는다() {
+        long statements = statements();
+        Order order = findOne(OrderFetchPlan.FULL);
+
+        assertEquals(2, statements() - statements, "주문 id 페이지 + 상품까지 조인");
+        assertTrue(Hibernate.isInitialized(order.getOrderItems()));
+        for (OrderItem orderItem : order.getOrderItems()) {
+            assertTrue(Hibernate.isInitialized(orderItem.getItem()));
+        }
+    }
+
+    private Order findOne(OrderFetchPlan plan) {
+        List<Order> orders = orderRepository.findAll(plan, offset, 1);
+        assertEquals(1, orders.size());
+        assertEquals(orderId, orders.get(0).getId());
+        return orders.get(0);
+    }
+
+    private long statements() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        return statistics.getPrepareStatementCount();
+    }
+}
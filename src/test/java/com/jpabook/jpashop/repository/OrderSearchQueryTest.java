@@ -0,0 +1,90 @@
+package com.jpabook.jpashop.repository;
+
+import com.jpabook.jpashop.domain.*;
+import com.jpabook.jpashop.domain.item.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 조건 조합별로 미리 만든 JPQL 32가지가 모두 해석되고 파라미터가 바인딩되는지 확인
+ */
+@SpringBootTest
+@Transactional
+public class OrderSearchQueryTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderRepository orderRepository;
+
+    static IntStream shapes() {
+        return IntStream.range(0, 1 << 5);
+    }
+
+    @ParameterizedTest
+    @MethodSource("shapes")
+    public void 모든_조건_조합_실행(int shape) {
+        OrderSearch orderSearch = orderSearch(shape);
+        assertEquals(shape, OrderSearchQuery.shape(orderSearch));
+
+        OrderSearchQuery.create(em, orderSearch, 10).getResultList();
+        OrderSearchQuery.createIds(em, orderSearch, 0, 10).getResultList();
+        OrderSearchQuery.createCount(em, orderSearch).getSingleResult();
+    }
+
+    @Test
+    public void 회원이름의_와일드카드는_문자로_검색() {
+        String prefix = "esc" + System.nanoTime();
+        Order underscore = createOrder(prefix + "_1");
+        createOrder(prefix + "a1");
+        Order percent = createOrder(prefix + "%2");
+        createOrder(prefix + "b2");
+
+        assertEquals(List.of(underscore.getId()), findIds(prefix + "_"));
+        assertEquals(List.of(percent.getId()), findIds(prefix + "%"));
+        assertEquals(4, findIds(prefix).size());
+    }
+
+    private List<Long> findIds(String memberName) {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setMemberName(memberName);
+        return orderRepository.findAllBySearch(orderSearch).stream().map(Order::getId).collect(toList());
+    }
+
+    private static OrderSearch orderSearch(int shape) {
+        OrderSearch orderSearch = new OrderSearch();
+        if ((shape & OrderSearchQuery.STATUS) != 0) orderSearch.setOrderStatus(OrderStatus.ORDER);
+        if ((shape & OrderSearchQuery.MEMBER_NAME) != 0) orderSearch.setMemberName("user");
+        if ((shape & OrderSearchQuery.ORDER_DATE_FROM) != 0) orderSearch.setOrderDateFrom(LocalDateTime.now().minusDays(1));
+        if ((shape & OrderSearchQuery.ORDER_DATE_TO) != 0) orderSearch.setOrderDateTo(LocalDateTime.now().plusDays(1));
+        if ((shape & OrderSearchQuery.DELIVERY_STATUS) != 0) orderSearch.setDeliveryStatus(DeliveryStatus.READY);
+        return orderSearch;
+    }
+
+    private Order createOrder(String memberName) {
+        Member member = new Member();
+        member.setName(memberName);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(10);
+        em.persist(book);
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, OrderItem.createOrderItem(book, 10000, 1));
+        em.persist(order);
+        return order;
+    }
+}
@@ -0,0 +1,157 @@
+package com.jpabook.jpashop.repository;
+
+import com.jpabook.jpashop.domain.OrderSearch;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 주문 검색 / 회원 중복 검사 쿼리가 인덱스를 타는지 H2 EXPLAIN 으로 확인
+ * 하이버네이트가 실제로 만든 SQL과 바인딩 값을 p6spy 리스너로 잡아서 그대로 EXPLAIN 한다.
+ * 인덱스를 빼거나 쿼리 모양이 바뀌어서 풀 스캔(tableScan)으로 바뀌면 실패한다.
+ */
+@SpringBootTest
+@Transactional
+public class QueryPlanTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired MemberRepository memberRepository;
+    @Autowired OrderRepository orderRepository;
+    @Autowired CapturingListener capturingListener;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CapturingListener capturingListener() {
+            return new CapturingListener();
+        }
+    }
+
+    @Test
+    public void 회원_이름_조회는_유니크_인덱스를_사용한다() {
+        String plan = explain(() -> memberRepository.findByName("userB"));
+
+        assertIndexAccess(plan, "uk_member_name");
+    }
+
+    @Test
+    public void 주문_상태_주문일_검색은_복합_인덱스를_사용한다() {
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+
+        String plan = explain(() -> orderRepository.findIdsBySearch(orderSearch, 0, 10));
+
+        assertIndexAccess(plan, "idx_orders_status_order_date");
+    }
+
+    @Test
+    public void 회원별_주문_조회는_인덱스를_사용한다() {
+        String plan = explain(() -> orderRepository.findAllByMemberIds(List.of(1L, 2L), null, 10));
+
+        assertIndexAccess(plan, "idx_orders_member_id");
+    }
+
+    @Test
+    public void 주문별_주문상품_조회는_인덱스를_사용한다() {
+        String plan = explain(() -> orderRepository.findAllWithItem(List.of(1L, 2L, 3L)));
+
+        assertIndexAccess(plan, "idx_order_item_order_id");
+    }
+
+    @Test
+    public void 주문_검색_조인은_풀_스캔하지_않는다() {
+        // 회원이름은 전방 일치
+        OrderSearch orderSearch = new OrderSearch();
+        orderSearch.setOrderStatus(OrderStatus.ORDER);
+        orderSearch.setMemberName("user");
+
+        String plan = explain(() -> orderRepository.findAllBySearch(orderSearch));
+
+        assertFalse(plan.toLowerCase().contains("tablescan"), "풀 스캔이 포함되면 안된다.\n" + plan);
+    }
+
+    /**
+     * query 를 실행하는 동안 나간 SQL 한 개를 같은 바인딩 값으로 EXPLAIN
+     */
+    private String explain(Runnable query) {
+        List<CapturedStatement> statements = capturingListener.capture(query);
+        assertEquals(1, statements.size(), "SQL 한 개만 실행되어야 한다. " + statements);
+        CapturedStatement statement = statements.get(0);
+        return String.join("\n", jdbcTemplate.queryForList("explain " + statement.sql, String.class,
+                statement.parameters.toArray()));
+    }
+
+    private static void assertIndexAccess(String plan, String indexName) {
+        String lower = plan.toLowerCase();
+        assertTrue(lower.contains(indexName), indexName + " 인덱스를 사용해야 한다.\n" + plan);
+        assertFalse(lower.contains("tablescan"), "풀 스캔이 포함되면 안된다.\n" + plan);
+    }
+
+    /**
+     * capture 중인 쓰레드에서 실행된 SQL과 바인딩 값 (p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록)
+     */
+    static class CapturingListener extends SimpleJdbcEventListener {
+
+        private final ThreadLocal<List<CapturedStatement>> captured = new ThreadLocal<>();
+        private final ThreadLocal<Map<Integer, Object>> parameters = ThreadLocal.withInitial(TreeMap::new);
+
+        List<CapturedStatement> capture(Runnable query) {
+            List<CapturedStatement> statements = new ArrayList<>();
+            captured.set(statements);
+            try {
+                query.run();
+            } finally {
+                captured.remove();
+                parameters.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public void onAfterPreparedStatementSet(PreparedStatementInformation statementInformation, int parameterIndex, Object value, SQLException e) {
+            if (captured.get() != null) {
+                parameters.get().put(parameterIndex, value);
+            }
+        }
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            List<CapturedStatement> statements = captured.get();
+            if (statements != null) {
+                statements.add(new CapturedStatement(statementInformation.getSql(), new ArrayList<>(parameters.get().values())));
+                parameters.get().clear();
+            }
+        }
+    }
+
+    static class CapturedStatement {
+        final String sql;
+        final List<Object> parameters;
+
+        CapturedStatement(String sql, List<Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public String toString() {
+            return sql + " " + parameters;
+        }
+    }
+}
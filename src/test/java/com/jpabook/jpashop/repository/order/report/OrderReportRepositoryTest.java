@@ -0,0 +1,165 @@
+package com.jpabook.jpashop.repository.order.report;
+
+import com.jpabook.jpashop.domain.*;
+import com.jpabook.jpashop.domain.item.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 매출 집계
+ * InitDb 와 다른 테스트가 남긴 주문이 있으므로 일별 매출은 지난 날짜로, 상태별 집계는 전후 차이로 확인한다.
+ */
+@SpringBootTest
+@Transactional
+public class OrderReportRepositoryTest {
+
+    private static final LocalDate DAY1 = LocalDate.of(2001, 3, 1);
+    private static final LocalDate DAY2 = DAY1.plusDays(1);
+
+    @Autowired EntityManager em;
+    @Autowired OrderReportRepository orderReportRepository;
+
+    @Test
+    public void 주문_총액은_주문상품을_추가할때_계산() throws Exception{
+        //given
+        Book book1 = createBook(10000);
+        Book book2 = createBook(5000);
+
+        //when
+        Order order = createOrder(createMember(), DAY1.atTime(10, 0),
+                OrderItem.createOrderItem(book1, 10000, 2),
+                OrderItem.createOrderItem(book2, 5000, 1));
+        em.flush();
+        em.clear();
+
+        //then
+        Order found = em.find(Order.class, order.getId());
+        assertEquals(25000, found.getTotalPrice());
+        assertEquals(2, found.getLineCount());
+    }
+
+    @Test
+    public void 일별_매출은_from_이상_to_미만의_ORDER_주문만() throws Exception{
+        //given
+        Member member = createMember();
+        Book book = createBook(1000);
+        createOrder(member, DAY1.minusDays(1).atTime(23, 59, 59), OrderItem.createOrderItem(book, 1000, 1)); // from 이전
+        createOrder(member, DAY1.atStartOfDay(), OrderItem.createOrderItem(book, 1000, 2));
+        createOrder(member, DAY1.atTime(23, 59, 59), OrderItem.createOrderItem(book, 1000, 3));
+        createOrder(member, DAY2.atTime(12, 0), OrderItem.createOrderItem(book, 1000, 4));
+        createOrder(member, DAY2.atTime(13, 0), OrderItem.createOrderItem(book, 1000, 5)).cancel(); // 취소
+        createOrder(member, DAY2.plusDays(1).atStartOfDay(), OrderItem.createOrderItem(book, 1000, 6)); // to 이후
+        em.flush();
+        em.clear();
+
+        //when
+        List<DailyRevenueDto> daily = orderReportRepository.findDailyRevenue(
+                DAY1.atStartOfDay(), DAY2.plusDays(1).atStartOfDay());
+
+        //then
+        assertEquals(2, daily.size(), "같은 날의 주문은 시각과 상관없이 한 줄로 묶는다.");
+        assertEquals(DAY1, daily.get(0).getOrderDay());
+        assertEquals(2, daily.get(0).getOrderCount());
+        assertEquals(5000, daily.get(0).getRevenue());
+        assertEquals(DAY2, daily.get(1).getOrderDay());
+        assertEquals(1, daily.get(1).getOrderCount());
+        assertEquals(4000, daily.get(1).getRevenue());
+    }
+
+    @Test
+    public void 회원별_매출은_ORDER_주문만() throws Exception{
+        //given
+        int price = Integer.MAX_VALUE / 4; // 다른 회원보다 매출이 커서 1위가 되도록
+        Member member = createMember();
+        Book book = createBook(price);
+        createOrder(member, LocalDateTime.now(), OrderItem.createOrderItem(book, price, 1));
+        createOrder(member, LocalDateTime.now(), OrderItem.createOrderItem(book, price, 1)).cancel();
+        em.flush();
+        em.clear();
+
+        //when
+        List<MemberRevenueDto> top = orderReportRepository.findTopMemberRevenue(1);
+
+        //then
+        assertEquals(1, top.size());
+        assertEquals(member.getId(), top.get(0).getMemberId());
+        assertEquals(member.getName(), top.get(0).getName());
+        assertEquals(1, top.get(0).getOrderCount());
+        assertEquals(price, top.get(0).getRevenue());
+    }
+
+    @Test
+    public void 상태별_주문수와_금액() throws Exception{
+        //given
+        Map<OrderStatus, StatusRevenueDto> before = revenueByStatus();
+        Member member = createMember();
+        Book book = createBook(1000);
+        createOrder(member, LocalDateTime.now(), OrderItem.createOrderItem(book, 1000, 1));
+        createOrder(member, LocalDateTime.now(), OrderItem.createOrderItem(book, 1000, 2));
+        createOrder(member, LocalDateTime.now(), OrderItem.createOrderItem(book, 1000, 4)).cancel();
+        em.flush();
+        em.clear();
+
+        //when
+        Map<OrderStatus, StatusRevenueDto> after = revenueByStatus();
+
+        //then
+        assertEquals(2, orderCount(after, OrderStatus.ORDER) - orderCount(before, OrderStatus.ORDER));
+        assertEquals(3000, revenue(after, OrderStatus.ORDER) - revenue(before, OrderStatus.ORDER));
+        assertEquals(1, orderCount(after, OrderStatus.CANCEL) - orderCount(before, OrderStatus.CANCEL));
+        assertEquals(4000, revenue(after, OrderStatus.CANCEL) - revenue(before, OrderStatus.CANCEL),
+                "취소해도 금액은 그대로 두고 상태로 구분한다.");
+    }
+
+    private Map<OrderStatus, StatusRevenueDto> revenueByStatus() {
+        return orderReportRepository.findRevenueByStatus().stream()
+                .collect(toMap(StatusRevenueDto::getOrderStatus, dto -> dto));
+    }
+
+    private static long orderCount(Map<OrderStatus, StatusRevenueDto> byStatus, OrderStatus status) {
+        StatusRevenueDto dto = byStatus.get(status);
+        return dto == null ? 0 : dto.getOrderCount();
+    }
+
+    private static long revenue(Map<OrderStatus, StatusRevenueDto> byStatus, OrderStatus status) {
+        StatusRevenueDto dto = byStatus.get(status);
+        return dto == null ? 0 : dto.getRevenue();
+    }
+
+    private Order createOrder(Member member, LocalDateTime orderDate, OrderItem... orderItems) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, orderItems);
+        order.setOrderDate(orderDate);
+        em.persist(order);
+        return order;
+    }
+
+    private Member createMember() {
+        Member member = new Member();
+        member.setName("매출" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(int price) {
+        Book book = new Book();
+        book.setName("매출 BOOK");
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        em.persist(book);
+        return book;
+    }
+}
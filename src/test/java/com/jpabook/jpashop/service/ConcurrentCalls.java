@@ -0,0 +1,51 @@
+package com.jpabook.jpashop.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 같은 호출을 여러 스레드에서 동시에 시작시키고 결과를 센다.
+ * 모든 작업을 제출한 뒤 한 번에 출발시켜 경합이 실제로 일어나게 한다.
+ */
+class ConcurrentCalls {
+
+    final AtomicInteger success = new AtomicInteger();
+    final AtomicInteger rejected = new AtomicInteger();
+    final AtomicInteger error = new AtomicInteger();
+
+    private ConcurrentCalls() {
+    }
+
+    /**
+     * @param call      호출 순번(0 ~ calls-1)을 받는 작업
+     * @param rejection 정상적인 거절로 셀 예외 (재고 부족, 중복 회원 등). 그 외 예외는 error로 센다.
+     */
+    static ConcurrentCalls run(int threads, int calls, Class<? extends Exception> rejection, IntConsumer call)
+            throws InterruptedException {
+        ConcurrentCalls result = new ConcurrentCalls();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < calls; i++) {
+            int n = i;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    call.accept(n);
+                    result.success.incrementAndGet();
+                } catch (Exception e) {
+                    (rejection.isInstance(e) ? result.rejected : result.error).incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        return result;
+    }
+}
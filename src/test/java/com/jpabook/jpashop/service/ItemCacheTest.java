@@ -0,0 +1,116 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.domain.item.Item;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 상품 2차 캐시 / 쿼리 캐시가 주문의 재고 변경을 반영하는지 확인
+ * 테스트 application.yml 은 main 설정을 대신하므로 캐시 영역과 통계를 여기서 켠다.
+ * 2차 캐시는 커밋 시점에 갱신되므로 테스트 자체에는 @Transactional을 붙이지 않는다.
+ * - order: 상품 엔티티의 재고를 바꾸므로 READ_WRITE 캐시 항목이 새 값으로 바뀐다. (다음 조회도 캐시 hit)
+ * - orderWithStockReservation: 벌크 update 라서 Item 영역이 비워진다. (다음 조회는 miss 후 DB에서 읽음)
+ * 둘 다 item 테이블 변경 시각을 갱신하므로 캐시된 상품 목록(쿼리 캐시)은 다시 조회된다.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=classpath:ehcache.xml"
+})
+public class ItemCacheTest {
+
+    private static final String ITEM_REGION = "com.jpabook.jpashop.domain.item.Item";
+
+    @Autowired ItemService itemService;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired EntityManagerFactory emf;
+
+    private Statistics statistics;
+    private Long memberId;
+    private Long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+
+        Member member = new Member();
+        member.setName("캐시" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        memberId = memberService.join(member);
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        itemService.saveItem(book);
+        itemId = book.getId();
+
+        sessionFactory.getCache().evictEntityData(Item.class, itemId);
+    }
+
+    @Test
+    public void 주문한_재고가_상품_캐시에_반영() throws Exception{
+        //첫 조회는 miss 후 캐시에 저장, 다음 조회는 hit
+        assertStockAndCache(100, 0, 1);
+        assertStockAndCache(100, 1, 0);
+
+        //엔티티로 재고 차감 -> 캐시 항목 갱신
+        orderService.order(memberId, itemId, 2);
+        assertStockAndCache(98, 1, 0);
+
+        //벌크 update 로 재고 차감 -> Item 영역 제거
+        orderService.orderWithStockReservation(memberId, itemId, 3);
+        assertStockAndCache(95, 0, 1);
+        assertStockAndCache(95, 1, 0);
+    }
+
+    @Test
+    public void 주문하면_캐시된_상품_목록을_다시_조회() throws Exception{
+        itemService.findItems();
+        assertListedStockAndQueryCache(100, 1, 0);
+
+        orderService.order(memberId, itemId, 2);
+        assertListedStockAndQueryCache(98, 0, 1);
+        assertListedStockAndQueryCache(98, 1, 0);
+
+        orderService.orderWithStockReservation(memberId, itemId, 3);
+        assertListedStockAndQueryCache(95, 0, 1);
+    }
+
+    private void assertStockAndCache(int stockQuantity, long hits, long misses) {
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(ITEM_REGION);
+        long hitCount = region.getHitCount();
+        long missCount = region.getMissCount();
+
+        assertEquals(stockQuantity, itemService.findOne(itemId).getStockQuantity());
+        assertEquals(hits, region.getHitCount() - hitCount, "2차 캐시 hit");
+        assertEquals(misses, region.getMissCount() - missCount, "2차 캐시 miss");
+    }
+
+    private void assertListedStockAndQueryCache(int stockQuantity, long hits, long misses) {
+        long hitCount = statistics.getQueryCacheHitCount();
+        long missCount = statistics.getQueryCacheMissCount();
+
+        Item listed = itemService.findItems().stream()
+                .filter(item -> item.getId().equals(itemId))
+                .findFirst().orElseThrow();
+        assertEquals(stockQuantity, listed.getStockQuantity());
+        assertEquals(hits, statistics.getQueryCacheHitCount() - hitCount, "쿼리 캐시 hit");
+        assertEquals(misses, statistics.getQueryCacheMissCount() - missCount, "쿼리 캐시 miss");
+    }
+}
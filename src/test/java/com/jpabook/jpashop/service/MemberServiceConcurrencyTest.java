@@ -0,0 +1,45 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.repository.MemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 같은 이름으로 동시에 회원 가입하는 경우
+ * 가입마다 별도 트랜잭션으로 커밋되어야 하므로 테스트 자체에는 @Transactional을 붙이지 않는다.
+ */
+@SpringBootTest
+public class MemberServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int NAMES = 500;
+    private static final int JOINS_PER_NAME = 4;
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void 동시가입_유니크_제약으로_중복_차단() throws Exception{
+        //given
+        String prefix = "동시가입" + System.nanoTime() + "-";
+
+        //when
+        ConcurrentCalls result = ConcurrentCalls.run(THREADS, NAMES * JOINS_PER_NAME, IllegalStateException.class, i -> {
+            Member member = new Member();
+            member.setName(prefix + (i % NAMES));
+            memberService.join(member);
+        });
+
+        //then
+        assertEquals(NAMES, result.success.get(), "이름마다 한 번만 가입되어야 한다.");
+        assertEquals(NAMES * (JOINS_PER_NAME - 1), result.rejected.get(), "나머지는 중복 회원이어야 한다.");
+        assertEquals(0, result.error.get());
+        for (int i = 0; i < NAMES; i++) {
+            assertEquals(1, memberRepository.findByName(prefix + i).size());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
@@ -56,4 +57,14 @@ public class MemberServiceTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void 이름_외_제약_위반은_중복_회원이_아니다() throws Exception{
+        //given
+        Member member = new Member();
+        member.setName("k".repeat(300)); // name varchar(255)
+
+        //when
+        assertThrows(DataIntegrityViolationException.class, () -> memberService.join(member));
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.IdAllocationSize;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.item.Book;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 대량 주문 (주문 2,000건, 주문상품 10,000건)
+ * 저장된 결과와 함께, 주문상품 수와 상관없이 batch 단위로만 SQL이 실행되는지 확인한다.
+ * 테스트 application.yml 은 main 설정을 대신하므로 운영과 같은 batch insert / 시퀀스 설정과 통계를 여기서 켠다.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=" + OrderBatchTest.JDBC_BATCH_SIZE,
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo"
+})
+@Transactional
+public class OrderBatchTest {
+
+    private static final int MEMBERS = 10;
+    private static final int ITEMS = 20;
+    private static final int ORDERS = 2000;
+    private static final int LINES_PER_ORDER = 5;
+    private static final int STOCK = 10000;
+    static final int JDBC_BATCH_SIZE = 1000; // hibernate.jdbc.batch_size
+
+    @Autowired EntityManager em;
+    @Autowired OrderService orderService;
+
+    @Test
+    public void 대량주문_결과와_SQL_수() throws Exception{
+        //given
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member();
+            member.setName("대량주문회원" + System.nanoTime() + "-" + i);
+            member.setAddress(new Address("서울", "강가", "123-123"));
+            em.persist(member);
+            memberIds.add(member.getId());
+        }
+        List<Long> itemIds = new ArrayList<>();
+        int[] prices = new int[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            Book book = new Book();
+            book.setName("대량주문상품" + i);
+            prices[i] = 1000 * (i + 1);
+            book.setPrice(prices[i]);
+            book.setStockQuantity(STOCK);
+            em.persist(book);
+            itemIds.add(book.getId());
+        }
+        em.flush();
+        em.clear();
+
+        List<BatchOrder> batchOrders = new ArrayList<>(ORDERS);
+        int[] ordered = new int[ITEMS];
+        long expectedTotalPrice = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            List<BatchOrder.Line> lines = new ArrayList<>(LINES_PER_ORDER);
+            for (int j = 0; j < LINES_PER_ORDER; j++) {
+                int item = (i * LINES_PER_ORDER + j) % ITEMS;
+                int count = 1 + (i + j) % 3;
+                lines.add(new BatchOrder.Line(itemIds.get(item), count));
+                ordered[item] += count;
+                expectedTotalPrice += (long) prices[item] * count;
+            }
+            batchOrders.add(new BatchOrder(memberIds.get(i % MEMBERS), lines));
+        }
+
+        //when
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        long inserts = statistics.getEntityInsertCount();
+        List<BatchOrderResult> results = orderService.orderBatch(batchOrders);
+        em.flush();
+        long executed = statistics.getPrepareStatementCount() - statements;
+        em.clear();
+
+        //then
+        assertEquals(ORDERS, results.size());
+        List<Long> orderIds = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            BatchOrderResult result = results.get(i);
+            assertEquals(i, result.getIndex());
+            assertTrue(result.isSuccess(), result.getError());
+            orderIds.add(result.getOrderId());
+        }
+        assertEquals(ORDERS, new HashSet<>(orderIds).size(), "주문 id는 모두 달라야 한다.");
+
+        assertEquals(ORDERS * 2 + ORDERS * LINES_PER_ORDER, statistics.getEntityInsertCount() - inserts,
+                "주문, 배송, 주문상품");
+        // 회원/상품 IN 조회, 시퀀스 호출(allocationSize 단위), insert batch, 재고 update batch
+        long sequenceCalls = ceil(ORDERS, IdAllocationSize.ORDER) + ceil(ORDERS, IdAllocationSize.DELIVERY)
+                + ceil(ORDERS * LINES_PER_ORDER, IdAllocationSize.ORDER_ITEM) + 3;
+        long batches = ceil(ORDERS, JDBC_BATCH_SIZE) * 2 + ceil(ORDERS * LINES_PER_ORDER, JDBC_BATCH_SIZE) + 1;
+        assertTrue(executed <= 2 + sequenceCalls + batches,
+                "실행된 SQL 수가 주문상품 수에 비례하면 안 된다. executed=" + executed);
+
+        Object[] totals = em.createQuery(
+                        "select sum(o.totalPrice), sum(o.lineCount) from Order o where o.id in :orderIds", Object[].class)
+                .setParameter("orderIds", orderIds)
+                .getSingleResult();
+        assertEquals(expectedTotalPrice, ((Number) totals[0]).longValue());
+        assertEquals((long) ORDERS * LINES_PER_ORDER, ((Number) totals[1]).longValue());
+        assertEquals((long) ORDERS * LINES_PER_ORDER, em.createQuery(
+                        "select count(oi) from OrderItem oi where oi.order.id in :orderIds", Long.class)
+                .setParameter("orderIds", orderIds)
+                .getSingleResult());
+
+        for (int i = 0; i < ITEMS; i++) {
+            int stock = em.createQuery("select i.stockQuantity from Item i where i.id = :id", Integer.class)
+                    .setParameter("id", itemIds.get(i))
+                    .getSingleResult();
+            assertEquals(STOCK - ordered[i], stock, "재고는 주문 수량만큼 줄어야 한다.");
+        }
+    }
+
+    private static long ceil(int count, int size) {
+        return (count + size - 1) / size;
+    }
+}
@@ -0,0 +1,150 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.OrderCancelJob;
+import com.jpabook.jpashop.domain.OrderCancelJobStatus;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.repository.OrderCancelJobRepository;
+import com.jpabook.jpashop.repository.OrderRepository;
+import com.jpabook.jpashop.repository.OrderSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 대량 주문 취소 작업을 백그라운드 실행기(OrderCancelJobRunner)로 실행하는 경우
+ * 배치마다 커밋되어야 하므로 테스트 자체에는 @Transactional을 붙이지 않는다.
+ * 작업은 앞의 3건을 처리한 뒤 멈춘 상태(lastOrderId = 3번째 주문)로 만들어 두고, 재개하면 그 다음부터 처리하는지 확인한다.
+ */
+@SpringBootTest
+public class OrderCancelJobRunnerTest {
+
+    private static final int ORDERS = 7;
+    private static final int PROCESSED = 3;
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired OrderCancelJobService orderCancelJobService;
+    @Autowired OrderCancelJobRunner orderCancelJobRunner;
+    @Autowired OrderCancelJobRepository orderCancelJobRepository;
+    @Autowired OrderRepository orderRepository;
+    @Autowired OrderSummaryRepository orderSummaryRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void 실패한_작업_재개() throws Exception{
+        //given
+        Fixture fixture = createOrders();
+        Long jobId = createStoppedJob(fixture, OrderCancelJobStatus.FAILED);
+
+        //when
+        orderCancelJobService.resume(jobId); // 커밋 후 실행기로 전달
+        OrderCancelJob job = awaitCompleted(jobId);
+
+        //then
+        assertResumedAfterLastOrderId(fixture, job);
+    }
+
+    @Test
+    public void 재시작시_실행중이던_작업_재개() throws Exception{
+        //given
+        Fixture fixture = createOrders();
+        Long jobId = createStoppedJob(fixture, OrderCancelJobStatus.RUNNING);
+
+        //when
+        orderCancelJobRunner.resumeUnfinished(); // ApplicationReadyEvent
+        OrderCancelJob job = awaitCompleted(jobId);
+
+        //then
+        assertResumedAfterLastOrderId(fixture, job);
+    }
+
+    private void assertResumedAfterLastOrderId(Fixture fixture, OrderCancelJob job) {
+        assertEquals(PROCESSED + (ORDERS - PROCESSED), job.getCanceledCount());
+        assertEquals(fixture.orderIds.get(ORDERS - 1), job.getLastOrderId());
+        assertNotNull(job.getFinishedAt());
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(s -> {
+            for (int i = 0; i < ORDERS; i++) {
+                Long orderId = fixture.orderIds.get(i);
+                // lastOrderId 까지는 이미 처리된 것으로 기록되어 있으므로 다시 처리하지 않는다.
+                OrderStatus expected = i < PROCESSED ? OrderStatus.ORDER : OrderStatus.CANCEL;
+                assertEquals(expected, orderRepository.findOne(orderId).getStatus(), "order " + i);
+                assertEquals(expected, orderSummaryRepository.findOne(orderId).getStatus(), "summary " + i);
+            }
+        });
+        assertEquals(100 - PROCESSED * 2, itemService.findOne(fixture.itemId).getStockQuantity(),
+                "재개 후 취소한 주문 수량만 재고 복구");
+    }
+
+    /**
+     * 앞의 PROCESSED 건을 처리하고 멈춘 작업 (실제 취소는 하지 않고 진행 상황만 기록)
+     */
+    private Long createStoppedJob(Fixture fixture, OrderCancelJobStatus status) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return tx.execute(s -> {
+            OrderCancelJob job = OrderCancelJob.createOrderCancelJob(fixture.memberId, null, null, 2, ORDERS);
+            job.run();
+            job.progress(fixture.orderIds.get(PROCESSED - 1), PROCESSED, 0);
+            if (status == OrderCancelJobStatus.FAILED) {
+                job.fail("테스트 실패");
+            }
+            orderCancelJobRepository.save(job);
+            return job.getId();
+        });
+    }
+
+    private OrderCancelJob awaitCompleted(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        OrderCancelJob job = orderCancelJobService.findOne(jobId);
+        while (job.getStatus() != OrderCancelJobStatus.COMPLETED && System.currentTimeMillis() < deadline) {
+            assertNotEquals(OrderCancelJobStatus.FAILED, job.getStatus(), job.getErrorMessage());
+            Thread.sleep(50);
+            job = orderCancelJobService.findOne(jobId);
+        }
+        assertEquals(OrderCancelJobStatus.COMPLETED, job.getStatus());
+        return job;
+    }
+
+    private Fixture createOrders() {
+        Member member = new Member();
+        member.setName("취소작업" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        Long memberId = memberService.join(member);
+
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        itemService.saveItem(book);
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderService.order(memberId, book.getId(), 2)); // 주문 id 는 증가 순서
+        }
+        return new Fixture(memberId, book.getId(), orderIds);
+    }
+
+    private static class Fixture {
+        private final Long memberId;
+        private final Long itemId;
+        private final List<Long> orderIds;
+
+        Fixture(Long memberId, Long itemId, List<Long> orderIds) {
+            this.memberId = memberId;
+            this.itemId = itemId;
+            this.orderIds = orderIds;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.DeliveryStatus;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderCancelJob;
+import com.jpabook.jpashop.domain.OrderCancelJobStatus;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.domain.item.Item;
+import com.jpabook.jpashop.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 테스트 트랜잭션은 롤백되므로 커밋 후 실행되는 백그라운드 작업은 돌지 않는다.
+ * cancelNextBatch 를 직접 반복 호출해서 배치 처리를 확인한다.
+ */
+@SpringBootTest
+@Transactional
+public class OrderCancelJobServiceTest {
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    OrderCancelJobService orderCancelJobService;
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Test
+    public void 대량주문취소() throws Exception{
+        //given
+        Member member = createMember("취소회원");
+        Member other = createMember("다른회원");
+        Book book1 = createBook("시골 JPA", 10000, 100);
+        Book book2 = createBook("토비의 봄", 20000, 100);
+
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            orderIds.add(orderService.order(member.getId(), book1.getId(), 2));
+            orderIds.add(orderService.order(member.getId(), book2.getId(), 1));
+        }
+        Long otherOrderId = orderService.order(other.getId(), book1.getId(), 3);
+        Long deliveredOrderId = orderIds.get(0);
+        orderRepository.findOne(deliveredOrderId).getDelivery().setStatus(DeliveryStatus.COMP);
+
+        //when
+        Long jobId = orderCancelJobService.submit(member.getId(), null, null, 3);
+        int batches = 0;
+        while (orderCancelJobService.cancelNextBatch(jobId)) {
+            batches++;
+        }
+        em.flush();
+        em.clear();
+
+        //then
+        OrderCancelJob job = orderCancelJobService.findOne(jobId);
+        assertEquals(OrderCancelJobStatus.COMPLETED, job.getStatus());
+        assertEquals("대상 주문 10건을 3건씩 처리", 4, batches);
+        assertEquals(10, job.getTargetCount());
+        assertEquals(9, job.getCanceledCount());
+        assertEquals("배송완료 주문은 건너뛴다.", 1, job.getSkippedCount());
+
+        for (Long orderId : orderIds) {
+            OrderStatus expected = orderId.equals(deliveredOrderId) ? OrderStatus.ORDER : OrderStatus.CANCEL;
+            assertEquals(expected, orderRepository.findOne(orderId).getStatus());
+        }
+        assertEquals("다른 회원 주문은 그대로", OrderStatus.ORDER, orderRepository.findOne(otherOrderId).getStatus());
+        assertEquals("취소된 수량만큼 재고 복구", 100 - 2 - 3, em.find(Item.class, book1.getId()).getStockQuantity());
+        assertEquals(100, em.find(Item.class, book2.getId()).getStockQuantity());
+    }
+
+    @Test
+    public void 대량주문취소_조건없음() throws Exception{
+        assertThrows(IllegalArgumentException.class, () -> orderCancelJobService.submit(null, null, null, 100));
+    }
+
+    private Member createMember(String name){
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(String name, int price, int stockQuantity) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(stockQuantity);
+        em.persist(book);
+        return book;
+    }
+}
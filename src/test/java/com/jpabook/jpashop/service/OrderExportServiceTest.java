@@ -0,0 +1,105 @@
+package com.jpabook.jpashop.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Delivery;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.Order;
+import com.jpabook.jpashop.domain.OrderItem;
+import com.jpabook.jpashop.domain.item.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 주문 NDJSON export 를 한 줄씩 파싱해서 확인
+ * InitDb 주문도 함께 나오므로 이 테스트에서 만든 주문만 골라서 본다.
+ */
+@SpringBootTest
+@Transactional
+public class OrderExportServiceTest {
+
+    @Autowired OrderExportService orderExportService;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired EntityManager em;
+
+    @Test
+    public void 한_줄에_주문_하나() throws Exception{
+        //given
+        Member member = createMember();
+        Book book1 = createBook("export BOOK1", 10000);
+        Book book2 = createBook("export BOOK2", 20000);
+        Order order = createOrder(member,
+                OrderItem.createOrderItem(book1, 10000, 1),
+                OrderItem.createOrderItem(book2, 20000, 2));
+        Order emptyOrder = createOrder(member);
+        em.flush();
+        em.clear();
+
+        //when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportNdjson(out);
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+
+        //then
+        assertTrue(ndjson.endsWith("\n"), "마지막 줄도 줄바꿈으로 끝나야 한다.");
+        Map<Long, JsonNode> lines = new HashMap<>();
+        for (String line : ndjson.substring(0, ndjson.length() - 1).split("\n", -1)) {
+            assertFalse(line.isEmpty(), "빈 줄이 있으면 안 된다.");
+            assertEquals('{', line.charAt(0), "줄 앞에 구분자가 붙으면 안 된다. line=" + line);
+            JsonNode node = objectMapper.readTree(line);
+            assertNull(lines.put(node.get("orderId").asLong(), node), "주문은 한 줄에만 나와야 한다.");
+        }
+
+        JsonNode exported = lines.get(order.getId());
+        assertNotNull(exported);
+        assertEquals(member.getName(), exported.get("name").asText());
+        assertEquals("서울", exported.get("address").get("city").asText());
+        Map<String, String> orderItems = new HashMap<>(); // 주문 안의 주문상품 순서는 정하지 않으므로 상품명으로 비교
+        for (JsonNode orderItem : exported.get("orderItems")) {
+            orderItems.put(orderItem.get("itemName").asText(),
+                    orderItem.get("orderPrice").asInt() + "x" + orderItem.get("count").asInt());
+        }
+        assertEquals(Map.of("export BOOK1", "10000x1", "export BOOK2", "20000x2"), orderItems);
+
+        JsonNode exportedEmpty = lines.get(emptyOrder.getId());
+        assertNotNull(exportedEmpty, "주문상품이 없는 주문도 export 되어야 한다.");
+        assertTrue(exportedEmpty.get("orderItems").isArray());
+        assertEquals(0, exportedEmpty.get("orderItems").size());
+    }
+
+    private Order createOrder(Member member, OrderItem... orderItems) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        Order order = Order.createOrder(member, delivery, orderItems);
+        em.persist(order);
+        return order;
+    }
+
+    private Member createMember() {
+        Member member = new Member();
+        member.setName("export" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        return member;
+    }
+
+    private Book createBook(String name, int price) {
+        Book book = new Book();
+        book.setName(name);
+        book.setPrice(price);
+        book.setStockQuantity(10);
+        em.persist(book);
+        return book;
+    }
+}
@@ -0,0 +1,134 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.*;
+import com.jpabook.jpashop.domain.item.Book;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 주문 id 페이지 -> 주문상품 페치 조인 (OrderService.findOrdersWithItems)
+ * 다른 테스트 데이터와 섞이지 않도록 이번 테스트에서만 쓰는 회원 이름으로 검색한다.
+ */
+@SpringBootTest
+@Transactional
+public class OrderPageTest {
+
+    @Autowired EntityManager em;
+    @Autowired OrderService orderService;
+
+    private Member member;
+    private Book book;
+    private OrderSearch orderSearch;
+    private List<Long> expectedIds; // 주문일 최신순, 같으면 id 역순
+
+    @BeforeEach
+    public void setUp() {
+        member = new Member();
+        member.setName("페이지" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        em.persist(member);
+        book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(100);
+        em.persist(book);
+
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Order o1 = createOrder(base.plusDays(1), 1);
+        Order o2 = createOrder(base.plusDays(3), 2);
+        Order o3 = createOrder(base.plusDays(2), 0); // 주문상품 없음
+        Order o4 = createOrder(base.plusDays(3), 1); // o2 와 같은 주문일, id 가 더 크다.
+        Order o5 = createOrder(base, 3);
+        expectedIds = List.of(o4.getId(), o2.getId(), o3.getId(), o1.getId(), o5.getId());
+
+        // 주문상품 검증이 메모리의 컬렉션이 아니라 페치 조인으로 읽은 결과를 보도록 영속성 컨텍스트를 비운다.
+        em.flush();
+        em.clear();
+        member = em.find(Member.class, member.getId());
+        book = em.find(Book.class, book.getId());
+
+        orderSearch = new OrderSearch();
+        orderSearch.setMemberName(member.getName());
+    }
+
+    @Test
+    public void 페이지_순서와_주문상품() throws Exception{
+        Page<Order> first = orderService.findOrdersWithItems(orderSearch, PageRequest.of(0, 2), OrderPageCount.EXACT);
+        Page<Order> second = orderService.findOrdersWithItems(orderSearch, PageRequest.of(1, 2), OrderPageCount.EXACT);
+        Page<Order> last = orderService.findOrdersWithItems(orderSearch, PageRequest.of(2, 2), OrderPageCount.EXACT);
+
+        assertEquals(expectedIds.subList(0, 2), ids(first));
+        assertEquals(expectedIds.subList(2, 4), ids(second), "주문상품이 없는 주문도 페이지에 포함");
+        assertEquals(expectedIds.subList(4, 5), ids(last));
+        assertTrue(first.hasNext());
+        assertTrue(second.hasNext());
+        assertFalse(last.hasNext());
+        assertEquals(5, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+
+        assertEquals(0, second.getContent().get(0).getOrderItems().size());
+        assertEquals(3, last.getContent().get(0).getOrderItems().size());
+    }
+
+    @Test
+    public void 건수_SKIP() throws Exception{
+        Page<Order> first = orderService.findOrdersWithItems(orderSearch, PageRequest.of(0, 2), OrderPageCount.SKIP);
+        Page<Order> last = orderService.findOrdersWithItems(orderSearch, PageRequest.of(2, 2), OrderPageCount.SKIP);
+
+        assertEquals(3, first.getTotalElements(), "count 생략: 현재 페이지까지 + 다음 페이지 있음(1)");
+        assertTrue(first.hasNext());
+        assertEquals(5, last.getTotalElements(), "마지막 페이지면 count 없이 정확한 건수");
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    public void 마지막_페이지는_count_없이_건수_계산() throws Exception{
+        Page<Order> onePage = orderService.findOrdersWithItems(orderSearch, PageRequest.of(0, 10), OrderPageCount.SKIP);
+
+        assertEquals(expectedIds, ids(onePage));
+        assertEquals(5, onePage.getTotalElements());
+        assertFalse(onePage.hasNext());
+    }
+
+    @Test
+    public void 건수_CACHED() throws Exception{
+        Page<Order> cached = orderService.findOrdersWithItems(orderSearch, PageRequest.of(0, 2), OrderPageCount.CACHED);
+        createOrder(LocalDateTime.of(2024, 2, 1, 0, 0), 1);
+
+        Page<Order> stillCached = orderService.findOrdersWithItems(orderSearch, PageRequest.of(0, 2), OrderPageCount.CACHED);
+        Page<Order> exact = orderService.findOrdersWithItems(orderSearch, PageRequest.of(0, 2), OrderPageCount.EXACT);
+
+        assertEquals(5, cached.getTotalElements());
+        assertEquals(5, stillCached.getTotalElements(), "같은 검색 조건이면 COUNT_TTL 동안 이전 건수 재사용");
+        assertEquals(6, exact.getTotalElements());
+    }
+
+    private Order createOrder(LocalDateTime orderDate, int lines) {
+        Delivery delivery = new Delivery();
+        delivery.setAddress(member.getAddress());
+        OrderItem[] orderItems = new OrderItem[lines];
+        for (int i = 0; i < lines; i++) {
+            orderItems[i] = OrderItem.createOrderItem(book, book.getPrice(), 1);
+        }
+        Order order = Order.createOrder(member, delivery, orderItems);
+        order.setOrderDate(orderDate);
+        em.persist(order);
+        return order;
+    }
+
+    private static List<Long> ids(Page<Order> page) {
+        return page.getContent().stream().map(Order::getId).collect(toList());
+    }
+}
@@ -0,0 +1,60 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.exception.NotEnoughStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 한 상품에 동시 주문이 몰리는 경우
+ * 각 주문이 별도 트랜잭션으로 커밋되어야 하므로 테스트 자체에는 @Transactional을 붙이지 않는다.
+ */
+@SpringBootTest
+public class OrderServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ORDERS = 2000;
+    private static final int STOCK = 1000;
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+
+    @Test
+    public void 동시주문_재고_원자적_차감() throws Exception{
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(STOCK);
+
+        //when
+        ConcurrentCalls result = ConcurrentCalls.run(THREADS, ORDERS, NotEnoughStockException.class,
+                i -> orderService.orderWithStockReservation(memberId, itemId, 1));
+
+        //then
+        assertEquals(STOCK, result.success.get(), "재고 수량만큼만 주문이 성공해야 한다.");
+        assertEquals(ORDERS - STOCK, result.rejected.get(), "나머지 주문은 재고 부족이어야 한다.");
+        assertEquals(0, result.error.get());
+        assertEquals(0, itemService.findOne(itemId).getStockQuantity(), "초과 판매 없이 재고가 0이어야 한다.");
+    }
+
+    private Long createMember(){
+        Member member = new Member();
+        member.setName("동시주문회원" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        return memberService.join(member);
+    }
+
+    private Long createBook(int stockQuantity){
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(stockQuantity);
+        itemService.saveItem(book);
+        return book.getId();
+    }
+}
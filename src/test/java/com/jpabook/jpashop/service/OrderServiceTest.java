@@ -65,6 +65,17 @@ public class OrderServiceTest {
         //when
         assertThrows(NotEnoughStockException.class, ()-> orderService.order(member.getId(), item.getId(), orderCount));
     }
+
+    @Test
+    public void 재고_원자적_차감_재고수량초과와_없는_상품() throws Exception{
+        //given
+        Member member = createMember();
+        Item item = createBook("시골 JPA" ,10000, 10);
+
+        //when
+        assertThrows(NotEnoughStockException.class, ()-> orderService.orderWithStockReservation(member.getId(), item.getId(), 11));
+        assertThrows(IllegalArgumentException.class, ()-> orderService.orderWithStockReservation(member.getId(), -1L, 1));
+    }
     @Test
     public void 주문취소() throws Exception{
         //given
@@ -0,0 +1,108 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.OrderStatus;
+import com.jpabook.jpashop.domain.OrderSummary;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.repository.OrderSummaryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * order_summary 가 주문/주문취소/회원 이름 변경과 같은 트랜잭션으로 갱신되는지 확인
+ * 이벤트는 커밋 직전에 반영되므로 테스트 자체에는 @Transactional을 붙이지 않는다.
+ */
+@SpringBootTest
+public class OrderSummaryServiceTest {
+
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired OrderSummaryService orderSummaryService;
+    @Autowired OrderSummaryRepository orderSummaryRepository;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    public void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        orderSummaryService.rebuild(); // 다른 테스트가 남긴 데이터와 상관없이 일치하는 상태에서 시작
+    }
+
+    @Test
+    public void 주문_취소_이름변경_반영() throws Exception{
+        //given
+        Long memberId = createMember("요약" + System.nanoTime());
+        Long itemId = createBook(10000);
+
+        //when
+        Long orderId = orderService.order(memberId, itemId, 3);
+        Long canceledId = orderService.order(memberId, itemId, 1);
+        orderService.cancelOrder(canceledId);
+        String newName = "요약변경" + System.nanoTime();
+        memberService.update(memberId, newName);
+
+        //then
+        tx.executeWithoutResult(s -> {
+            OrderSummary summary = orderSummaryRepository.findOne(orderId);
+            assertEquals(OrderStatus.ORDER, summary.getStatus());
+            assertEquals(newName, summary.getMemberName());
+            assertEquals(memberId, summary.getMemberId());
+            assertEquals(30000, summary.getTotalPrice());
+            assertEquals(1, summary.getLineCount());
+
+            OrderSummary canceled = orderSummaryRepository.findOne(canceledId);
+            assertEquals(OrderStatus.CANCEL, canceled.getStatus());
+            assertEquals(newName, canceled.getMemberName());
+        });
+        OrderSummaryService.ConsistencyReport report = orderSummaryService.check();
+        assertTrue(report.isConsistent(), "불일치 주문: " + report.getSampleOrderIds());
+    }
+
+    @Test
+    public void 불일치_확인_후_재생성() throws Exception{
+        //given
+        Long orderId = orderService.order(createMember("재생성" + System.nanoTime()), createBook(10000), 2);
+        tx.executeWithoutResult(s -> em.createNativeQuery("update order_summary set total_price = 0 where order_id = :orderId")
+                .setParameter("orderId", orderId)
+                .executeUpdate());
+
+        //when
+        OrderSummaryService.ConsistencyReport broken = orderSummaryService.check();
+        orderSummaryService.rebuild();
+        OrderSummaryService.ConsistencyReport rebuilt = orderSummaryService.check();
+
+        //then
+        assertFalse(broken.isConsistent());
+        assertEquals(1, broken.getInconsistent());
+        assertEquals(orderId, broken.getSampleOrderIds().get(0));
+        assertTrue(rebuilt.isConsistent());
+        assertEquals(rebuilt.getOrders(), rebuilt.getSummaries());
+    }
+
+    private Long createMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        return memberService.join(member);
+    }
+
+    private Long createBook(int price) {
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(price);
+        book.setStockQuantity(100);
+        itemService.saveItem(book);
+        return book.getId();
+    }
+}
@@ -0,0 +1,210 @@
+package com.jpabook.jpashop.service;
+
+import com.jpabook.jpashop.domain.Address;
+import com.jpabook.jpashop.domain.Member;
+import com.jpabook.jpashop.domain.item.Book;
+import com.jpabook.jpashop.exception.NotEnoughStockException;
+import com.jpabook.jpashop.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 재고 예약 버퍼 (jpashop.stock-buffer.enabled=true)
+ * 롤백/커밋 후 처리와 백그라운드 보충을 확인해야 하므로 테스트 자체에는 @Transactional을 붙이지 않는다.
+ * 상품 재고가 비어 있는 첫 주문은 DB에서 바로 차감하고 보충을 요청하므로, 각 테스트는 첫 주문 뒤 리스가 찰 때까지 기다린다.
+ * 주기적인 flush 는 테스트 중에 끼어들지 않도록 길게 잡고 직접 호출한다.
+ */
+@SpringBootTest(properties = {
+        "jpashop.stock-buffer.enabled=true",
+        "jpashop.stock-buffer.lease-size=" + StockReservationBufferTest.LEASE_SIZE,
+        "jpashop.stock-buffer.flush-interval=3600000"
+})
+public class StockReservationBufferTest {
+
+    static final int LEASE_SIZE = 10;
+    private static final int STOCK = 100;
+
+    @Autowired StockReservationBuffer buffer;
+    @Autowired OrderService orderService;
+    @Autowired MemberService memberService;
+    @Autowired ItemService itemService;
+    @Autowired ItemRepository itemRepository;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void 롤백된_주문의_재고는_리스로_돌아온다() throws Exception{
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(STOCK);
+        orderService.order(memberId, itemId, 1);
+        awaitAvailable(buffer, itemId, LEASE_SIZE);
+
+        //when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            orderService.order(memberId, itemId, 3);
+            assertEquals(LEASE_SIZE - 3, buffer.available(itemId));
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertEquals(LEASE_SIZE, buffer.available(itemId));
+        assertEquals(STOCK - 1 - LEASE_SIZE, stock(itemId));
+    }
+
+    @Test
+    public void 리스가_부족해지면_보충() throws Exception{
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(STOCK);
+        orderService.order(memberId, itemId, 1);
+        awaitAvailable(buffer, itemId, LEASE_SIZE);
+
+        //when
+        orderService.order(memberId, itemId, 8); // 남은 리스 2 (lease-size / 4 이상)
+        orderService.order(memberId, itemId, 1); // 남은 리스 1 -> 보충 요청
+
+        //then
+        awaitAvailable(buffer, itemId, 1 + LEASE_SIZE);
+        assertEquals(STOCK - 1 - LEASE_SIZE * 2, stock(itemId));
+    }
+
+    @Test
+    public void 재고가_리스보다_적으면_남은_재고만_리스() throws Exception{
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(5);
+
+        //when
+        orderService.order(memberId, itemId, 1); // DB에서 바로 차감, 남은 4개를 리스로 보충
+        awaitAvailable(buffer, itemId, 4);
+        assertEquals(0, stock(itemId));
+        orderService.order(memberId, itemId, 4);
+
+        //then
+        assertThrows(NotEnoughStockException.class, () -> orderService.order(memberId, itemId, 1));
+        assertEquals(0, buffer.available(itemId));
+        assertEquals(0, stock(itemId));
+        assertEquals(5, ordered(itemId));
+    }
+
+    @Test
+    public void 취소한_주문의_재고는_커밋_후_리스로_돌아온다() throws Exception{
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(STOCK);
+        orderService.order(memberId, itemId, 1);
+        awaitAvailable(buffer, itemId, LEASE_SIZE);
+        Long orderId = orderService.order(memberId, itemId, 4);
+        assertEquals(LEASE_SIZE - 4, buffer.available(itemId));
+
+        //when
+        orderService.cancelOrder(orderId);
+
+        //then
+        assertEquals(LEASE_SIZE, buffer.available(itemId));
+        assertEquals(STOCK - 1 - LEASE_SIZE, stock(itemId), "취소 재고는 DB가 아니라 리스로 돌아간다.");
+    }
+
+    @Test
+    public void 주문이_없던_상품의_리스는_flush로_반납() throws Exception{
+        //given
+        Long memberId = createMember();
+        Long itemId = createBook(STOCK);
+        orderService.order(memberId, itemId, 1);
+        awaitAvailable(buffer, itemId, LEASE_SIZE);
+
+        //when
+        buffer.flush(); // 직전 주기에 주문이 있었으므로 lease-size 까지는 남긴다.
+        assertEquals(LEASE_SIZE, buffer.available(itemId));
+        buffer.flush(); // 이번 주기에는 주문이 없었으므로 전부 반납
+
+        //then
+        assertEquals(0, buffer.available(itemId));
+        assertEquals(STOCK - 1, stock(itemId));
+    }
+
+    @Test
+    public void 종료하면_남은_리스를_모두_반납() throws Exception{
+        //given
+        // 컨텍스트의 버퍼를 종료하면 다른 테스트에서 보충할 수 없으므로 따로 만든다.
+        StockReservationBuffer standalone = new StockReservationBuffer(itemRepository, transactionManager,
+                new SimpleMeterRegistry(), true, LEASE_SIZE);
+        Long itemId = createBook(STOCK);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> standalone.reserve(itemId, 1));
+        awaitAvailable(standalone, itemId, LEASE_SIZE);
+        assertEquals(STOCK - 1 - LEASE_SIZE, stock(itemId));
+
+        //when
+        standalone.returnAll();
+
+        //then
+        assertEquals(0, standalone.available(itemId));
+        assertEquals(STOCK - 1, stock(itemId));
+    }
+
+    @Test
+    public void 동시주문_초과판매_없음() throws Exception{
+        //given
+        int stock = 500;
+        int orders = 1000;
+        Long memberId = createMember();
+        Long itemId = createBook(stock);
+
+        //when
+        ConcurrentCalls result = ConcurrentCalls.run(32, orders, NotEnoughStockException.class,
+                i -> orderService.order(memberId, itemId, 1));
+
+        //then
+        assertEquals(0, result.error.get());
+        assertEquals(orders, result.success.get() + result.rejected.get());
+        assertTrue(result.success.get() <= stock, "재고보다 많이 팔리면 안 된다.");
+        // 보충 트랜잭션 커밋과 리스 반영 사이에 들어온 주문은 재고 부족으로 실패할 수 있지만 재고는 사라지지 않는다.
+        assertEquals(result.success.get(), ordered(itemId));
+        assertEquals(stock, ordered(itemId) + stock(itemId) + buffer.available(itemId),
+                "판매 + DB 재고 + 리스 = 처음 재고");
+    }
+
+    private static void awaitAvailable(StockReservationBuffer buffer, Long itemId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (buffer.available(itemId) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, buffer.available(itemId));
+    }
+
+    private int stock(Long itemId) {
+        return itemService.findOne(itemId).getStockQuantity();
+    }
+
+    private long ordered(Long itemId) {
+        Long ordered = new TransactionTemplate(transactionManager).execute(status -> em.createQuery(
+                        "select sum(oi.count) from OrderItem oi where oi.item.id = :itemId", Long.class)
+                .setParameter("itemId", itemId)
+                .getSingleResult());
+        return ordered == null ? 0 : ordered;
+    }
+
+    private Long createMember(){
+        Member member = new Member();
+        member.setName("재고버퍼" + System.nanoTime());
+        member.setAddress(new Address("서울", "강가", "123-123"));
+        return memberService.join(member);
+    }
+
+    private Long createBook(int stockQuantity){
+        Book book = new Book();
+        book.setName("시골 JPA");
+        book.setPrice(10000);
+        book.setStockQuantity(stockQuantity);
+        itemService.saveItem(book);
+        return book.getId();
+    }
+}